@@ -0,0 +1,498 @@
+package org.ak80.ubyte;
+
+import java.util.Arrays;
+
+import static org.ak80.ubyte.ByteAccess.checkRange;
+
+/**
+ * Encodes bytes as Base64 or Base32 text and decodes the text again, as defined in RFC 4648
+ * <p>
+ * Bytes are processed in groups, three bytes to four characters for Base64 and five bytes to eight characters for
+ * Base32. Each group is split into pairs of characters, which are looked up in a table, so one lookup yields two
+ * characters. The text is written into char arrays or ASCII byte arrays, only the result of the convenience methods
+ * is allocated. For streams use {@link BaseEncodingOutputStream} and {@link BaseEncodingInputStream}.
+ * </p>
+ * <p>
+ * Decoding accepts the text with or without padding, but no white spaces or line breaks.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public final class BaseEncoding {
+
+  /**
+   * Base64 with the standard alphabet and padding
+   */
+  public static final BaseEncoding BASE64 =
+      new BaseEncoding("Base64", "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/", true);
+
+  /**
+   * Base64 with the URL and file name safe alphabet and padding
+   */
+  public static final BaseEncoding BASE64_URL =
+      new BaseEncoding("Base64", "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_", true);
+
+  /**
+   * Base32 with the standard alphabet and padding
+   */
+  public static final BaseEncoding BASE32 =
+      new BaseEncoding("Base32", "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567", true);
+
+  static final char PADDING = '=';
+
+  private static final int NO_DIGIT = -1;
+  private static final int BASE64_GROUP_BYTES = 3;
+  private static final int BASE64_GROUP_CHARS = 4;
+  private static final int BASE32_GROUP_BYTES = 5;
+  private static final int BASE32_GROUP_CHARS = 8;
+
+  private final String name;
+  private final char[] alphabet;
+  private final boolean padding;
+  private final int bitsPerChar;
+  private final int bytesPerGroup;
+  private final int charsPerGroup;
+  private final char[] pairs;
+  private final int[] values;
+
+  private BaseEncoding(final String name, final String alphabet, final boolean padding) {
+    this.name = name;
+    this.alphabet = alphabet.toCharArray();
+    this.padding = padding;
+    this.bitsPerChar = Integer.numberOfTrailingZeros(alphabet.length());
+    this.charsPerGroup = Byte.SIZE / gcd(Byte.SIZE, bitsPerChar);
+    this.bytesPerGroup = charsPerGroup * bitsPerChar / Byte.SIZE;
+
+    int pairCount = 1 << (2 * bitsPerChar);
+    this.pairs = new char[2 * pairCount];
+    for (int pair = 0; pair < pairCount; pair++) {
+      pairs[2 * pair] = this.alphabet[pair >>> bitsPerChar];
+      pairs[2 * pair + 1] = this.alphabet[pair & (alphabet.length() - 1)];
+    }
+    this.values = new int[256];
+    Arrays.fill(values, NO_DIGIT);
+    for (int value = 0; value < this.alphabet.length; value++) {
+      values[this.alphabet[value]] = value;
+    }
+  }
+
+  private BaseEncoding(final BaseEncoding encoding, final boolean padding) {
+    this.name = encoding.name;
+    this.alphabet = encoding.alphabet;
+    this.padding = padding;
+    this.bitsPerChar = encoding.bitsPerChar;
+    this.charsPerGroup = encoding.charsPerGroup;
+    this.bytesPerGroup = encoding.bytesPerGroup;
+    this.pairs = encoding.pairs;
+    this.values = encoding.values;
+  }
+
+  /**
+   * Returns the same encoding, but without padding characters at the end of the text
+   *
+   * @return the encoding without padding
+   */
+  public BaseEncoding withoutPadding() {
+    return padding ? new BaseEncoding(this, false) : this;
+  }
+
+  /**
+   * Returns the number of bytes in a group, three for Base64 and five for Base32
+   *
+   * @return the number of bytes encoded together
+   */
+  public int bytesPerGroup() {
+    return bytesPerGroup;
+  }
+
+  /**
+   * Returns the number of characters in a group, four for Base64 and eight for Base32
+   *
+   * @return the number of characters a group of bytes is encoded to
+   */
+  public int charsPerGroup() {
+    return charsPerGroup;
+  }
+
+  /**
+   * Returns the length of the text for the given number of bytes
+   *
+   * @param length the number of bytes
+   * @return the number of characters
+   */
+  public int encodedLength(final int length) {
+    int groups = length / bytesPerGroup;
+    int remainder = length % bytesPerGroup;
+    if (remainder == 0) {
+      return groups * charsPerGroup;
+    }
+    return (groups + 1) * charsPerGroup - (padding ? 0 : charsPerGroup - remainderChars(remainder));
+  }
+
+  /**
+   * Encodes the array
+   *
+   * @param array the bytes to encode
+   * @return the text
+   */
+  public String encode(final byte[] array) {
+    char[] text = new char[encodedLength(array.length)];
+    encode(array, 0, array.length, text, 0);
+    return new String(text);
+  }
+
+  /**
+   * Encodes the range of the source array into the target char array
+   *
+   * @param source       the bytes to encode
+   * @param fromIndex    the index of the first byte to encode, inclusive
+   * @param toIndex      the index of the last byte to encode, exclusive
+   * @param target       the array to store the text in
+   * @param targetOffset the index in the target of the first character
+   * @return the number of characters
+   */
+  public int encode(final byte[] source, final int fromIndex, final int toIndex,
+                    final char[] target, final int targetOffset) {
+    checkRange(target.length, targetOffset, targetOffset + encodedLength(source, fromIndex, toIndex));
+    return encode(source, fromIndex, toIndex, new Chars(target), targetOffset);
+  }
+
+  /**
+   * Encodes the range of the source array into the target array as ASCII text
+   *
+   * @param source       the bytes to encode
+   * @param fromIndex    the index of the first byte to encode, inclusive
+   * @param toIndex      the index of the last byte to encode, exclusive
+   * @param target       the array to store the ASCII text in
+   * @param targetOffset the index in the target of the first character
+   * @return the number of characters
+   */
+  public int encode(final byte[] source, final int fromIndex, final int toIndex,
+                    final byte[] target, final int targetOffset) {
+    checkRange(target.length, targetOffset, targetOffset + encodedLength(source, fromIndex, toIndex));
+    return encode(source, fromIndex, toIndex, new Ascii(target), targetOffset);
+  }
+
+  /**
+   * Decodes the text
+   *
+   * @param text the text to decode
+   * @return the decoded bytes
+   */
+  public byte[] decode(final CharSequence text) {
+    Text sequence = new Sequence(text);
+    byte[] decoded = new byte[decodedLength(unpaddedEnd(sequence, 0, text.length()))];
+    decode(sequence, 0, text.length(), decoded, 0);
+    return decoded;
+  }
+
+  /**
+   * Returns the maximum number of bytes of decoded text with the given length, which is exact for text without
+   * padding
+   *
+   * @param length the number of characters
+   * @return the maximum number of bytes
+   */
+  public int maxDecodedLength(final int length) {
+    return decodedLength(length);
+  }
+
+  /**
+   * Decodes the range of the source char array into the target array
+   *
+   * @param source       the text to decode
+   * @param fromIndex    the index of the first character, inclusive
+   * @param toIndex      the index of the last character, exclusive
+   * @param target       the array to store the decoded bytes in
+   * @param targetOffset the index in the target of the first decoded byte
+   * @return the number of decoded bytes
+   */
+  public int decode(final char[] source, final int fromIndex, final int toIndex,
+                    final byte[] target, final int targetOffset) {
+    checkRange(source.length, fromIndex, toIndex);
+    return decode(new Chars(source), fromIndex, toIndex, target, targetOffset);
+  }
+
+  /**
+   * Decodes the range of the source ASCII text into the target array
+   *
+   * @param source       the ASCII text to decode
+   * @param fromIndex    the index of the first character, inclusive
+   * @param toIndex      the index of the last character, exclusive
+   * @param target       the array to store the decoded bytes in
+   * @param targetOffset the index in the target of the first decoded byte
+   * @return the number of decoded bytes
+   */
+  public int decode(final byte[] source, final int fromIndex, final int toIndex,
+                    final byte[] target, final int targetOffset) {
+    checkRange(source.length, fromIndex, toIndex);
+    return decode(new Ascii(source), fromIndex, toIndex, target, targetOffset);
+  }
+
+  private int encodedLength(final byte[] source, final int fromIndex, final int toIndex) {
+    checkRange(source.length, fromIndex, toIndex);
+    return encodedLength(toIndex - fromIndex);
+  }
+
+  private int encode(final byte[] source, final int fromIndex, final int toIndex,
+                     final Text target, final int targetOffset) {
+    int position = targetOffset;
+    int index = fromIndex;
+    if (bytesPerGroup == BASE64_GROUP_BYTES) {
+      for (; index + BASE64_GROUP_BYTES <= toIndex; index += BASE64_GROUP_BYTES) {
+        int group = (source[index] & 0xff) << 16 | (source[index + 1] & 0xff) << 8 | source[index + 2] & 0xff;
+        target.putPair(position, (group >>> 12) << 1);
+        target.putPair(position + 2, (group & 0xfff) << 1);
+        position += 4;
+      }
+    } else {
+      for (; index + BASE32_GROUP_BYTES <= toIndex; index += BASE32_GROUP_BYTES) {
+        long group = readBase32Group(source, index);
+        for (int shift = 30; shift >= 0; shift -= 10) {
+          target.putPair(position, ((int) (group >>> shift) & 0x3ff) << 1);
+          position += 2;
+        }
+      }
+    }
+    if (index < toIndex) {
+      int remainder = toIndex - index;
+      long group = readGroup(source, index, remainder) << ((bytesPerGroup - remainder) * Byte.SIZE);
+      int chars = padding ? charsPerGroup : remainderChars(remainder);
+      for (int i = 0; i < chars; i++) {
+        target.put(position++, i < remainderChars(remainder) ? digit(group, i) : PADDING);
+      }
+    }
+    return position - targetOffset;
+  }
+
+  private int decode(final Text source, final int fromIndex, final int toIndex,
+                     final byte[] target, final int targetOffset) {
+    int end = unpaddedEnd(source, fromIndex, toIndex);
+    int length = decodedLength(end - fromIndex);
+    checkRange(target.length, targetOffset, targetOffset + length);
+    int position = targetOffset;
+    int index = fromIndex;
+    if (bytesPerGroup == BASE64_GROUP_BYTES) {
+      for (; index + BASE64_GROUP_CHARS <= end; index += BASE64_GROUP_CHARS) {
+        int group = source.value(index) << 18 | source.value(index + 1) << 12
+            | source.value(index + 2) << 6 | source.value(index + 3);
+        if (group < 0) {
+          throw invalidCharacter(source, index);
+        }
+        target[position] = (byte) (group >>> 16);
+        target[position + 1] = (byte) (group >>> 8);
+        target[position + 2] = (byte) group;
+        position += 3;
+      }
+    } else {
+      for (; index + BASE32_GROUP_CHARS <= end; index += BASE32_GROUP_CHARS) {
+        long group = (long) source.value(index) << 35 | (long) source.value(index + 1) << 30
+            | (long) source.value(index + 2) << 25 | (long) source.value(index + 3) << 20
+            | (long) source.value(index + 4) << 15 | (long) source.value(index + 5) << 10
+            | (long) source.value(index + 6) << 5 | (long) source.value(index + 7);
+        if (group < 0) {
+          throw invalidCharacter(source, index);
+        }
+        position = writeGroup(group, BASE32_GROUP_BYTES, target, position);
+      }
+    }
+    if (index < end) {
+      long group = 0;
+      for (int i = index; i < end; i++) {
+        group = group << bitsPerChar | source.value(i);
+        if (group < 0) {
+          throw invalidCharacter(source, i);
+        }
+      }
+      position = writeRemainder(group, end - index, target, position);
+    }
+    return position - targetOffset;
+  }
+
+  private int remainderChars(final int remainderBytes) {
+    return (remainderBytes * Byte.SIZE + bitsPerChar - 1) / bitsPerChar;
+  }
+
+  private char digit(final long group, final int index) {
+    int shift = bytesPerGroup * Byte.SIZE - (index + 1) * bitsPerChar;
+    return alphabet[(int) (group >>> shift) & (alphabet.length - 1)];
+  }
+
+  private int decodedLength(final int length) {
+    int remainder = length % charsPerGroup;
+    return length / charsPerGroup * bytesPerGroup + remainder * bitsPerChar / Byte.SIZE;
+  }
+
+  private int unpaddedEnd(final Text source, final int fromIndex, final int toIndex) {
+    int end = toIndex;
+    while (end > fromIndex && toIndex - end < charsPerGroup - 1 && source.get(end - 1) == PADDING) {
+      end--;
+    }
+    return checkLength(fromIndex, end, toIndex);
+  }
+
+  private int checkLength(final int fromIndex, final int end, final int toIndex) {
+    int remainder = (end - fromIndex) % charsPerGroup;
+    int remainderBytes = remainder * bitsPerChar / Byte.SIZE;
+    if (remainder != 0 && (remainderBytes == 0 || remainderChars(remainderBytes) != remainder)) {
+      throw new IllegalArgumentException(String.format("%s characters are not valid %s text", end - fromIndex, name));
+    }
+    if (end < toIndex && (toIndex - fromIndex) % charsPerGroup != 0) {
+      throw new IllegalArgumentException(String.format("The padding of the %s text is not complete", name));
+    }
+    return end;
+  }
+
+  private IllegalArgumentException invalidCharacter(final Text source, final int fromIndex) {
+    int index = fromIndex;
+    while (source.value(index) != NO_DIGIT) {
+      index++;
+    }
+    return new IllegalArgumentException(String.format("The character '%s' at index %s is not a %s digit",
+        source.get(index), index, name));
+  }
+
+  private static long readBase32Group(final byte[] source, final int index) {
+    return (source[index] & 0xffL) << 32 | (source[index + 1] & 0xffL) << 24 | (source[index + 2] & 0xffL) << 16
+        | (source[index + 3] & 0xffL) << 8 | source[index + 4] & 0xffL;
+  }
+
+  private static long readGroup(final byte[] source, final int index, final int length) {
+    long group = 0;
+    for (int i = index; i < index + length; i++) {
+      group = group << Byte.SIZE | (source[i] & 0xffL);
+    }
+    return group;
+  }
+
+  private static int writeGroup(final long group, final int length, final byte[] target, final int targetOffset) {
+    long bits = group;
+    for (int i = targetOffset + length - 1; i >= targetOffset; i--) {
+      target[i] = (byte) bits;
+      bits >>>= Byte.SIZE;
+    }
+    return targetOffset + length;
+  }
+
+  private int writeRemainder(final long group, final int chars, final byte[] target, final int targetOffset) {
+    int bytes = chars * bitsPerChar / Byte.SIZE;
+    return writeGroup(group >>> (chars * bitsPerChar - bytes * Byte.SIZE), bytes, target, targetOffset);
+  }
+
+  private static int gcd(final int a, final int b) {
+    return b == 0 ? a : gcd(b, a % b);
+  }
+
+  /**
+   * The text of an encoding, either chars, ASCII bytes or a read only char sequence, so encoding and decoding are
+   * written only once
+   */
+  private abstract class Text {
+
+    abstract char get(int index);
+
+    abstract void put(int index, char character);
+
+    abstract void putPair(int index, int pair);
+
+    int value(final int index) {
+      char character = get(index);
+      return character < values.length ? values[character] : NO_DIGIT;
+    }
+
+  }
+
+  private final class Chars extends Text {
+
+    private final char[] chars;
+
+    Chars(final char[] chars) {
+      this.chars = chars;
+    }
+
+    @Override
+    char get(final int index) {
+      return chars[index];
+    }
+
+    @Override
+    void put(final int index, final char character) {
+      chars[index] = character;
+    }
+
+    @Override
+    void putPair(final int index, final int pair) {
+      chars[index] = pairs[pair];
+      chars[index + 1] = pairs[pair + 1];
+    }
+
+  }
+
+  private final class Ascii extends Text {
+
+    private final byte[] bytes;
+
+    Ascii(final byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    char get(final int index) {
+      return (char) (bytes[index] & 0xff);
+    }
+
+    @Override
+    void put(final int index, final char character) {
+      bytes[index] = (byte) character;
+    }
+
+    @Override
+    void putPair(final int index, final int pair) {
+      bytes[index] = (byte) pairs[pair];
+      bytes[index + 1] = (byte) pairs[pair + 1];
+    }
+
+  }
+
+  private final class Sequence extends Text {
+
+    private final CharSequence sequence;
+
+    Sequence(final CharSequence sequence) {
+      this.sequence = sequence;
+    }
+
+    @Override
+    char get(final int index) {
+      return sequence.charAt(index);
+    }
+
+    @Override
+    void put(final int index, final char character) {
+      throw new UnsupportedOperationException("A char sequence is read only");
+    }
+
+    @Override
+    void putPair(final int index, final int pair) {
+      throw new UnsupportedOperationException("A char sequence is read only");
+    }
+
+  }
+
+}
@@ -0,0 +1,163 @@
+package org.ak80.ubyte;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream that decodes Base64 or Base32 text of a {@link BaseEncoding} from the underlying stream
+ * <p>
+ * White spaces and line breaks in the text are skipped, padding is optional. Text that is not valid in the encoding
+ * causes an IOException.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public class BaseEncodingInputStream extends FilterInputStream {
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final int END_OF_STREAM = -1;
+
+  private final BaseEncoding encoding;
+  private final byte[] single = new byte[1];
+  private final byte[] text = new byte[BUFFER_SIZE];
+  private int textLimit;
+  private final byte[] decoded;
+  private int decodedPosition;
+  private int decodedLimit;
+  private boolean endOfText;
+
+  /**
+   * Creates a stream decoding the text in the given encoding of the given stream
+   *
+   * @param in       the stream to read the text from
+   * @param encoding the encoding of the text
+   */
+  public BaseEncodingInputStream(final InputStream in, final BaseEncoding encoding) {
+    super(in);
+    this.encoding = encoding;
+    this.decoded = new byte[encoding.maxDecodedLength(BUFFER_SIZE)];
+  }
+
+  @Override
+  public int read() throws IOException {
+    return read(single, 0, 1) == END_OF_STREAM ? END_OF_STREAM : Ubyte.toUnsignedByte(single[0]);
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    ByteAccess.checkOffsetCount(b.length, off, len);
+    if (len == 0) {
+      return 0;
+    }
+    if (!fillDecoded()) {
+      return END_OF_STREAM;
+    }
+    int count = Math.min(len, decodedLimit - decodedPosition);
+    System.arraycopy(decoded, decodedPosition, b, off, count);
+    decodedPosition += count;
+    return count;
+  }
+
+  @Override
+  public long skip(final long n) throws IOException {
+    if (n <= 0) {
+      return 0;
+    }
+    long remaining = n;
+    while (remaining > 0 && fillDecoded()) {
+      int count = (int) Math.min(remaining, decodedLimit - decodedPosition);
+      decodedPosition += count;
+      remaining -= count;
+    }
+    return n - Math.max(remaining, 0);
+  }
+
+  /**
+   * Returns the number of decoded bytes that can be read without reading the underlying stream
+   *
+   * @return the number of decoded bytes in the buffer
+   */
+  @Override
+  public int available() {
+    return decodedLimit - decodedPosition;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public synchronized void mark(final int readlimit) {
+    // not supported
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    throw new IOException("mark/reset not supported");
+  }
+
+  private boolean fillDecoded() throws IOException {
+    while (decodedPosition == decodedLimit && !endOfText) {
+      decodedPosition = 0;
+      decodedLimit = 0;
+      if (textLimit == text.length) {
+        throw new IOException("The text continues after the padding");
+      }
+      int count = in.read(text, textLimit, text.length - textLimit);
+      if (count == END_OF_STREAM) {
+        endOfText = true;
+        decodeText(textLimit);
+      } else {
+        textLimit = removeWhiteSpaces(textLimit, textLimit + count);
+        int paddingIndex = textLimit;
+        for (int i = 0; i < textLimit; i++) {
+          if (text[i] == BaseEncoding.PADDING) {
+            paddingIndex = i;
+            break;
+          }
+        }
+        decodeText(paddingIndex / encoding.charsPerGroup() * encoding.charsPerGroup());
+      }
+    }
+    return decodedPosition < decodedLimit;
+  }
+
+  private void decodeText(final int length) throws IOException {
+    try {
+      decodedLimit = encoding.decode(text, 0, length, decoded, 0);
+    } catch (IllegalArgumentException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+    System.arraycopy(text, length, text, 0, textLimit - length);
+    textLimit -= length;
+  }
+
+  private int removeWhiteSpaces(final int fromIndex, final int toIndex) {
+    int position = fromIndex;
+    for (int i = fromIndex; i < toIndex; i++) {
+      if (!Character.isWhitespace(text[i])) {
+        text[position++] = text[i];
+      }
+    }
+    return position;
+  }
+
+}
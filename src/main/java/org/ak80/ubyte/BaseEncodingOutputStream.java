@@ -0,0 +1,149 @@
+package org.ak80.ubyte;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An output stream that writes the bytes written to it as Base64 or Base32 text of a {@link BaseEncoding}
+ * <p>
+ * Bytes are collected until a group is complete, so the text is the same no matter how the input is split into
+ * chunks. The text is collected in a buffer and written when the buffer is full, on {@link #flush()} and when
+ * finishing. The last incomplete group and its padding are written by {@link #finish()} or {@link #close()}.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public class BaseEncodingOutputStream extends FilterOutputStream {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final BaseEncoding encoding;
+  private final byte[] group;
+  private int groupLength;
+  private final byte[] text;
+  private int textPosition;
+  private final int maxChunkLength;
+  private boolean finished;
+
+  /**
+   * Creates a stream writing the text in the given encoding into the given stream
+   *
+   * @param out      the stream to write the text to
+   * @param encoding the encoding of the text
+   */
+  public BaseEncodingOutputStream(final OutputStream out, final BaseEncoding encoding) {
+    super(out);
+    this.encoding = encoding;
+    this.group = new byte[encoding.bytesPerGroup()];
+    this.text = new byte[BUFFER_SIZE];
+    this.maxChunkLength = BUFFER_SIZE / encoding.charsPerGroup() * encoding.bytesPerGroup();
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    checkNotFinished();
+    group[groupLength++] = (byte) b;
+    if (groupLength == group.length) {
+      writeText(group, 0, groupLength);
+      groupLength = 0;
+    }
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    ByteAccess.checkOffsetCount(b.length, off, len);
+    checkNotFinished();
+    int index = off;
+    int end = off + len;
+    while (groupLength > 0 && index < end) {
+      write(b[index++]);
+    }
+    while (end - index >= group.length) {
+      int length = Math.min(maxChunkLength, (end - index) / group.length * group.length);
+      writeText(b, index, index + length);
+      index += length;
+    }
+    while (index < end) {
+      write(b[index++]);
+    }
+  }
+
+  /**
+   * Writes the last incomplete group with padding, without closing the underlying stream
+   * <p>
+   * No more bytes can be written after finishing. Finishing more than once has no effect.
+   * </p>
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public void finish() throws IOException {
+    if (finished) {
+      return;
+    }
+    writeText(group, 0, groupLength);
+    groupLength = 0;
+    finished = true;
+    flush();
+  }
+
+  /**
+   * Writes the text of all complete groups and flushes the underlying stream
+   * <p>
+   * The bytes of an incomplete group stay in the stream until the group is complete or the stream is finished.
+   * </p>
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public void flush() throws IOException {
+    flushText();
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      finish();
+    } finally {
+      out.close();
+    }
+  }
+
+  private void writeText(final byte[] bytes, final int fromIndex, final int toIndex) throws IOException {
+    if (text.length - textPosition < encoding.encodedLength(toIndex - fromIndex)) {
+      flushText();
+    }
+    textPosition += encoding.encode(bytes, fromIndex, toIndex, text, textPosition);
+  }
+
+  private void flushText() throws IOException {
+    if (textPosition > 0) {
+      out.write(text, 0, textPosition);
+      textPosition = 0;
+    }
+  }
+
+  private void checkNotFinished() throws IOException {
+    if (finished) {
+      throw new IOException("The stream is already finished");
+    }
+  }
+
+}
@@ -0,0 +1,122 @@
+package org.ak80.ubyte;
+
+import static org.ak80.ubyte.ByteAccess.WORD_LENGTH;
+import static org.ak80.ubyte.ByteAccess.checkRange;
+import static org.ak80.ubyte.ByteAccess.getLongLittleEndian;
+import static org.ak80.ubyte.ByteAccess.putLongLittleEndian;
+
+/**
+ * Provides transposing of 8x8 bit matrices and converting between bytes and bit planes
+ * <p>
+ * An 8x8 bit matrix is stored in a long with row j in byte j, i.e. in the bits 8 * j to 8 * j + 7 counting from the
+ * rightmost bit, and column i of a row in bit i of the row, numbered like {@link Bits}. Transposing swaps rows and
+ * columns with three steps of shifts and masks and without branches, instead of testing and setting all 64 bits.
+ * </p>
+ * <p>
+ * Splitting bytes into bit planes collects bit N of every byte into plane N, eight bytes at a time: bit j of the
+ * plane byte for a group of eight bytes is bit N of byte j of the group. Merging is the reverse.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public final class BitMatrix {
+
+  private static final int PLANES = 8;
+
+  private BitMatrix() {
+    // hide
+  }
+
+  /**
+   * Transposes the 8x8 bit matrix, so bit i of byte j becomes bit j of byte i
+   *
+   * @param matrix the matrix, with row j in byte j counting from the rightmost byte
+   * @return the transposed matrix
+   */
+  public static long transpose8x8(final long matrix) {
+    long x = matrix;
+    long t = (x ^ (x >>> 7)) & 0x00AA00AA00AA00AAL;
+    x ^= t ^ (t << 7);
+    t = (x ^ (x >>> 14)) & 0x0000CCCC0000CCCCL;
+    x ^= t ^ (t << 14);
+    t = (x ^ (x >>> 28)) & 0x00000000F0F0F0F0L;
+    x ^= t ^ (t << 28);
+    return x;
+  }
+
+  /**
+   * Splits the range of the source into eight bit planes stored in the target
+   * <p>
+   * The range has length / 8 groups of eight bytes. Plane N takes length / 8 bytes starting at
+   * targetOffset + N * length / 8, and its byte g holds bit N of the eight bytes of group g, with bit N of the first
+   * byte of the group in bit 0.
+   * </p>
+   *
+   * @param source       the bytes to split
+   * @param fromIndex    the index of the first byte, inclusive
+   * @param toIndex      the index of the last byte, exclusive, the length of the range must be a multiple of eight
+   * @param target       the array to store the planes in
+   * @param targetOffset the index in the target of the first byte of plane 0
+   */
+  public static void splitBitPlanes(final byte[] source, final int fromIndex, final int toIndex,
+                                    final byte[] target, final int targetOffset) {
+    checkRange(source.length, fromIndex, toIndex);
+    int groups = checkGroups(toIndex - fromIndex);
+    checkRange(target.length, targetOffset, targetOffset + toIndex - fromIndex);
+    for (int group = 0; group < groups; group++) {
+      long planes = transpose8x8(getLongLittleEndian(source, fromIndex + group * WORD_LENGTH));
+      for (int plane = 0; plane < PLANES; plane++) {
+        target[targetOffset + plane * groups + group] = (byte) (planes >>> (plane * Byte.SIZE));
+      }
+    }
+  }
+
+  /**
+   * Merges eight bit planes stored in the range of the source into bytes, the reverse of
+   * {@link #splitBitPlanes(byte[], int, int, byte[], int)}
+   *
+   * @param source       the planes to merge
+   * @param fromIndex    the index of the first byte of plane 0, inclusive
+   * @param toIndex      the index of the last byte of plane 7, exclusive, the length of the range must be a multiple
+   *                     of eight
+   * @param target       the array to store the merged bytes in
+   * @param targetOffset the index in the target of the first merged byte
+   */
+  public static void mergeBitPlanes(final byte[] source, final int fromIndex, final int toIndex,
+                                    final byte[] target, final int targetOffset) {
+    checkRange(source.length, fromIndex, toIndex);
+    int groups = checkGroups(toIndex - fromIndex);
+    checkRange(target.length, targetOffset, targetOffset + toIndex - fromIndex);
+    for (int group = 0; group < groups; group++) {
+      long planes = 0;
+      for (int plane = 0; plane < PLANES; plane++) {
+        planes |= (source[fromIndex + plane * groups + group] & 0xffL) << (plane * Byte.SIZE);
+      }
+      putLongLittleEndian(target, targetOffset + group * WORD_LENGTH, transpose8x8(planes));
+    }
+  }
+
+  private static int checkGroups(final int length) {
+    if (length % WORD_LENGTH != 0) {
+      throw new IllegalArgumentException(String.format("A length of %s is not allowed, it must be a multiple of 8", length));
+    }
+    return length / WORD_LENGTH;
+  }
+
+}
@@ -0,0 +1,153 @@
+package org.ak80.ubyte;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Package private helpers for range checks and word-at-a-time access to byte arrays and buffers
+ * <p>
+ * Words are always returned in big endian order, i.e. the byte with the lowest index ends up in the most significant
+ * byte of the long, regardless of the byte order of a buffer
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+final class ByteAccess {
+
+  static final int WORD_LENGTH = 8;
+
+  static final long LOW_BITS = 0x0101010101010101L;
+  static final long HIGH_BITS = 0x8080808080808080L;
+  static final long LOW_SEVEN_BITS = 0x7f7f7f7f7f7f7f7fL;
+
+  private ByteAccess() {
+    // hide
+  }
+
+  /**
+   * Checks that fromIndex and toIndex describe a valid range in an array or buffer of the given length
+   *
+   * @param length    the length of the array
+   * @param fromIndex the index of the first element, inclusive
+   * @param toIndex   the index of the last element, exclusive
+   */
+  static void checkRange(final int length, final int fromIndex, final int toIndex) {
+    if (fromIndex > toIndex) {
+      throw new IllegalArgumentException(String.format("fromIndex(%s) > toIndex(%s)", fromIndex, toIndex));
+    }
+    if (fromIndex < 0) {
+      throw new ArrayIndexOutOfBoundsException(fromIndex);
+    }
+    if (toIndex > length) {
+      throw new ArrayIndexOutOfBoundsException(toIndex);
+    }
+  }
+
+  /**
+   * Checks that offset and count describe a valid range in an array of the given length, as required by the read and
+   * write methods of {@link java.io.InputStream} and {@link java.io.OutputStream}
+   *
+   * @param length the length of the array
+   * @param offset the index of the first element
+   * @param count  the number of elements
+   * @throws IndexOutOfBoundsException if offset or count are negative or the range exceeds the array
+   */
+  static void checkOffsetCount(final int length, final int offset, final int count) {
+    if (offset < 0 || count < 0 || count > length - offset) {
+      throw new IndexOutOfBoundsException(String.format("offset(%s), count(%s) out of bounds for length %s",
+          offset, count, length));
+    }
+  }
+
+  /**
+   * Reads eight bytes starting at index as a big endian long
+   * <p>
+   * Reads through a heap buffer view of the array, which the JIT compiles to a single load instead of eight
+   * </p>
+   *
+   * @param array the array to read from
+   * @param index the index of the first byte
+   * @return the eight bytes as long
+   */
+  static long getLong(final byte[] array, final int index) {
+    return ByteBuffer.wrap(array).getLong(index);
+  }
+
+  /**
+   * Reads eight bytes starting at index as a little endian long, i.e. the byte at index ends up in the least
+   * significant byte of the long
+   *
+   * @param array the array to read from
+   * @param index the index of the first byte
+   * @return the eight bytes as long
+   */
+  static long getLongLittleEndian(final byte[] array, final int index) {
+    return ByteBuffer.wrap(array).order(ByteOrder.LITTLE_ENDIAN).getLong(index);
+  }
+
+  /**
+   * Reads eight bytes starting at the absolute index as a big endian long, independent of the buffer's byte order
+   *
+   * @param buffer the buffer to read from
+   * @param index  the absolute index of the first byte
+   * @return the eight bytes as long
+   */
+  static long getLong(final ByteBuffer buffer, final int index) {
+    long word = buffer.getLong(index);
+    return buffer.order() == ByteOrder.BIG_ENDIAN ? word : Long.reverseBytes(word);
+  }
+
+  /**
+   * Writes the long as eight bytes in little endian order starting at index, the reverse of
+   * {@link #getLongLittleEndian(byte[], int)}
+   *
+   * @param array the array to write to
+   * @param index the index of the first byte
+   * @param word  the value to write
+   */
+  static void putLongLittleEndian(final byte[] array, final int index, final long word) {
+    ByteBuffer.wrap(array).order(ByteOrder.LITTLE_ENDIAN).putLong(index, word);
+  }
+
+  /**
+   * Returns a long with the given byte in each of its eight bytes
+   *
+   * @param value the byte to repeat
+   * @return the long with the repeated byte
+   */
+  static long broadcast(final int value) {
+    return (value & 0xffL) * LOW_BITS;
+  }
+
+  /**
+   * Returns a long with the high bit set in each byte that is zero in the given word, and all other bits cleared
+   * <p>
+   * Unlike the shorter (word - 0x01..) &amp; ~word &amp; 0x80.. form there are no false positives, so any flagged
+   * byte can be used, not only the lowest one
+   * </p>
+   *
+   * @param word the word to test
+   * @return the word with the high bit flagged in each zero byte
+   */
+  static long zeroBytes(final long word) {
+    long sum = (word & LOW_SEVEN_BITS) + LOW_SEVEN_BITS;
+    return ~(sum | word | LOW_SEVEN_BITS);
+  }
+
+}
@@ -0,0 +1,303 @@
+package org.ak80.ubyte;
+
+import java.nio.ByteBuffer;
+import java.util.stream.IntStream;
+
+import static org.ak80.ubyte.ByteAccess.WORD_LENGTH;
+import static org.ak80.ubyte.ByteAccess.checkRange;
+import static org.ak80.ubyte.ByteAccess.getLong;
+
+/**
+ * A histogram of unsigned byte values, with derived statistics like Shannon entropy, min, max and distinct count
+ * <p>
+ * Bytes are counted into four interleaved count tables, which are merged at the end. When the same value repeats,
+ * consecutive increments go to different tables, so they do not wait for each other to be stored and loaded again.
+ * Very large arrays can be counted in parallel with {@link #addParallel(byte[], int, int)}.
+ * </p>
+ * <p>
+ * Histograms can be filled from several arrays and buffers and be merged. They are not thread safe.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public final class ByteHistogram {
+
+  private static final int VALUES = 256;
+  private static final int TABLES = 4;
+  private static final int NO_VALUE = -1;
+  private static final int PARALLEL_CHUNK_SIZE = 1 << 18;
+
+  private final long[] counts = new long[VALUES];
+
+  /**
+   * Creates an empty histogram
+   */
+  public ByteHistogram() {
+    // all counts are zero
+  }
+
+  /**
+   * Returns a histogram of the bytes in the array
+   *
+   * @param array the array to count
+   * @return the histogram
+   */
+  public static ByteHistogram of(final byte[] array) {
+    return new ByteHistogram().add(array, 0, array.length);
+  }
+
+  /**
+   * Returns a histogram of the bytes between position and limit of the buffer, without changing the position
+   *
+   * @param buffer the buffer to count
+   * @return the histogram
+   */
+  public static ByteHistogram of(final ByteBuffer buffer) {
+    return new ByteHistogram().add(buffer);
+  }
+
+  /**
+   * Adds the bytes in the range of the array to this histogram
+   *
+   * @param array     the array to count
+   * @param fromIndex the index of the first byte to count, inclusive
+   * @param toIndex   the index of the last byte to count, exclusive
+   * @return this histogram
+   */
+  public ByteHistogram add(final byte[] array, final int fromIndex, final int toIndex) {
+    checkRange(array.length, fromIndex, toIndex);
+    mergeTables(counts, countTables(array, fromIndex, toIndex));
+    return this;
+  }
+
+  /**
+   * Adds the bytes between position and limit of the buffer to this histogram, without changing the position
+   *
+   * @param buffer the buffer to count
+   * @return this histogram
+   */
+  public ByteHistogram add(final ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      int offset = buffer.arrayOffset();
+      return add(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+    }
+    int[] tables = new int[TABLES * VALUES];
+    int index = buffer.position();
+    int limit = buffer.limit();
+    for (; index + WORD_LENGTH <= limit; index += WORD_LENGTH) {
+      long word = getLong(buffer, index);
+      tables[(int) (word >>> 56)]++;
+      tables[VALUES + (int) ((word >>> 48) & 0xff)]++;
+      tables[2 * VALUES + (int) ((word >>> 40) & 0xff)]++;
+      tables[3 * VALUES + (int) ((word >>> 32) & 0xff)]++;
+      tables[(int) ((word >>> 24) & 0xff)]++;
+      tables[VALUES + (int) ((word >>> 16) & 0xff)]++;
+      tables[2 * VALUES + (int) ((word >>> 8) & 0xff)]++;
+      tables[3 * VALUES + (int) (word & 0xff)]++;
+    }
+    for (; index < limit; index++) {
+      tables[buffer.get(index) & 0xff]++;
+    }
+    mergeTables(counts, tables);
+    return this;
+  }
+
+  /**
+   * Adds the bytes in the range of the array to this histogram, counting chunks of the range in parallel
+   * <p>
+   * Uses the common fork join pool. Small ranges are counted sequentially
+   * </p>
+   *
+   * @param array     the array to count
+   * @param fromIndex the index of the first byte to count, inclusive
+   * @param toIndex   the index of the last byte to count, exclusive
+   * @return this histogram
+   */
+  public ByteHistogram addParallel(final byte[] array, final int fromIndex, final int toIndex) {
+    checkRange(array.length, fromIndex, toIndex);
+    int length = toIndex - fromIndex;
+    if (length <= PARALLEL_CHUNK_SIZE) {
+      return add(array, fromIndex, toIndex);
+    }
+    int chunks = (int) (((long) length + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE);
+    long[] chunkCounts = IntStream.range(0, chunks).parallel()
+        .mapToObj(chunk -> {
+          int chunkFrom = fromIndex + chunk * PARALLEL_CHUNK_SIZE;
+          return countTables(array, chunkFrom, Math.min(toIndex, chunkFrom + PARALLEL_CHUNK_SIZE));
+        })
+        .collect(() -> new long[VALUES], ByteHistogram::mergeTables, ByteHistogram::mergeCounts);
+    mergeCounts(counts, chunkCounts);
+    return this;
+  }
+
+  /**
+   * Adds the counts of the other histogram to this histogram
+   *
+   * @param other the histogram to add
+   * @return this histogram
+   */
+  public ByteHistogram merge(final ByteHistogram other) {
+    mergeCounts(counts, other.counts);
+    return this;
+  }
+
+  /**
+   * Returns how often the unsigned byte value was counted
+   *
+   * @param value the unsigned byte, only the rightmost byte is used
+   * @return the count of the value
+   */
+  public long count(final int value) {
+    return counts[Ubyte.toUnsignedByte(value)];
+  }
+
+  /**
+   * Returns a copy of the counts, indexed by unsigned byte value
+   *
+   * @return the 256 counts
+   */
+  public long[] toArray() {
+    return counts.clone();
+  }
+
+  /**
+   * Returns the number of bytes counted
+   *
+   * @return the total count
+   */
+  public long total() {
+    long total = 0;
+    for (long count : counts) {
+      total += count;
+    }
+    return total;
+  }
+
+  /**
+   * Returns the number of different unsigned byte values counted
+   *
+   * @return the number of distinct values, from 0 to 256
+   */
+  public int distinctCount() {
+    int distinct = 0;
+    for (long count : counts) {
+      if (count != 0) {
+        distinct++;
+      }
+    }
+    return distinct;
+  }
+
+  /**
+   * Returns the smallest unsigned byte value counted
+   *
+   * @return the smallest value, or -1 if nothing was counted
+   */
+  public int min() {
+    for (int value = 0; value < VALUES; value++) {
+      if (counts[value] != 0) {
+        return value;
+      }
+    }
+    return NO_VALUE;
+  }
+
+  /**
+   * Returns the largest unsigned byte value counted
+   *
+   * @return the largest value, or -1 if nothing was counted
+   */
+  public int max() {
+    for (int value = VALUES - 1; value >= 0; value--) {
+      if (counts[value] != 0) {
+        return value;
+      }
+    }
+    return NO_VALUE;
+  }
+
+  /**
+   * Returns the unsigned byte value that was counted most often, the smallest one if there are several
+   *
+   * @return the most frequent value, or -1 if nothing was counted
+   */
+  public int mostFrequent() {
+    int mostFrequent = NO_VALUE;
+    long maxCount = 0;
+    for (int value = 0; value < VALUES; value++) {
+      if (counts[value] > maxCount) {
+        maxCount = counts[value];
+        mostFrequent = value;
+      }
+    }
+    return mostFrequent;
+  }
+
+  /**
+   * Returns the Shannon entropy of the counted bytes in bits per byte
+   * <p>
+   * The result ranges from 0 for a single repeated value to 8 for uniformly distributed values
+   * </p>
+   *
+   * @return the entropy in bits per byte, or 0 if nothing was counted
+   */
+  public double entropy() {
+    long total = total();
+    if (total == 0) {
+      return 0;
+    }
+    double entropy = 0;
+    for (long count : counts) {
+      if (count != 0) {
+        double probability = (double) count / total;
+        entropy -= probability * Math.log(probability);
+      }
+    }
+    return entropy / Math.log(2);
+  }
+
+  private static int[] countTables(final byte[] array, final int fromIndex, final int toIndex) {
+    int[] tables = new int[TABLES * VALUES];
+    int index = fromIndex;
+    for (; index + TABLES <= toIndex; index += TABLES) {
+      tables[array[index] & 0xff]++;
+      tables[VALUES + (array[index + 1] & 0xff)]++;
+      tables[2 * VALUES + (array[index + 2] & 0xff)]++;
+      tables[3 * VALUES + (array[index + 3] & 0xff)]++;
+    }
+    for (; index < toIndex; index++) {
+      tables[array[index] & 0xff]++;
+    }
+    return tables;
+  }
+
+  private static void mergeTables(final long[] target, final int[] tables) {
+    for (int value = 0; value < VALUES; value++) {
+      target[value] += (long) tables[value] + tables[VALUES + value] + tables[2 * VALUES + value]
+          + tables[3 * VALUES + value];
+    }
+  }
+
+  private static void mergeCounts(final long[] target, final long[] source) {
+    for (int value = 0; value < VALUES; value++) {
+      target[value] += source[value];
+    }
+  }
+
+}
@@ -0,0 +1,531 @@
+package org.ak80.ubyte;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.ak80.ubyte.ByteAccess.WORD_LENGTH;
+import static org.ak80.ubyte.ByteAccess.broadcast;
+import static org.ak80.ubyte.ByteAccess.checkRange;
+import static org.ak80.ubyte.ByteAccess.getLong;
+import static org.ak80.ubyte.ByteAccess.zeroBytes;
+
+/**
+ * Provides fast searching for unsigned byte values and byte patterns in byte arrays and buffers
+ * <p>
+ * Single byte values are searched eight bytes at a time, by testing a whole long for a matching byte. Byte patterns
+ * are searched with the Boyer-Moore-Horspool algorithm, which uses a skip table to jump over parts of the input
+ * that cannot match.
+ * </p>
+ * <p>
+ * Values are given as int, and like in {@link Ubyte#formatByteAsHex(int)} only the rightmost byte is used. Buffers
+ * are searched from their position to their limit, the returned index is absolute and the position of the buffer
+ * is not changed. This works for heap buffers as well as for direct or mapped buffers.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public final class ByteSearch {
+
+  private static final int NOT_FOUND = -1;
+  private static final int TABLE_SIZE = 256;
+  private static final int MAX_WORD_DELIMITERS = 8;
+
+  private ByteSearch() {
+    // hide
+  }
+
+  /**
+   * Returns the index of the first occurrence of the unsigned byte value in the array
+   *
+   * @param array the array to search
+   * @param value the unsigned byte to search for
+   * @return the index of the first occurrence, or -1 if there is none
+   */
+  public static int indexOf(final byte[] array, final int value) {
+    return indexOf(array, 0, array.length, value);
+  }
+
+  /**
+   * Returns the index of the first occurrence of the unsigned byte value in the range of the array
+   *
+   * @param array     the array to search
+   * @param fromIndex the index of the first byte to search, inclusive
+   * @param toIndex   the index of the last byte to search, exclusive
+   * @param value     the unsigned byte to search for
+   * @return the index of the first occurrence, or -1 if there is none
+   */
+  public static int indexOf(final byte[] array, final int fromIndex, final int toIndex, final int value) {
+    checkRange(array.length, fromIndex, toIndex);
+    long pattern = broadcast(value);
+    int index = fromIndex;
+    for (; index + WORD_LENGTH <= toIndex; index += WORD_LENGTH) {
+      long found = zeroBytes(getLong(array, index) ^ pattern);
+      if (found != 0) {
+        return index + (Long.numberOfLeadingZeros(found) >>> 3);
+      }
+    }
+    byte signedValue = (byte) value;
+    for (; index < toIndex; index++) {
+      if (array[index] == signedValue) {
+        return index;
+      }
+    }
+    return NOT_FOUND;
+  }
+
+  /**
+   * Returns the index of the first occurrence of the unsigned byte value between position and limit of the buffer
+   *
+   * @param buffer the buffer to search
+   * @param value  the unsigned byte to search for
+   * @return the absolute index of the first occurrence, or -1 if there is none
+   */
+  public static int indexOf(final ByteBuffer buffer, final int value) {
+    if (buffer.hasArray()) {
+      int offset = buffer.arrayOffset();
+      return unshift(indexOf(buffer.array(), offset + buffer.position(), offset + buffer.limit(), value), offset);
+    }
+    long pattern = broadcast(value);
+    int index = buffer.position();
+    int limit = buffer.limit();
+    for (; index + WORD_LENGTH <= limit; index += WORD_LENGTH) {
+      long found = zeroBytes(getLong(buffer, index) ^ pattern);
+      if (found != 0) {
+        return index + (Long.numberOfLeadingZeros(found) >>> 3);
+      }
+    }
+    byte signedValue = (byte) value;
+    for (; index < limit; index++) {
+      if (buffer.get(index) == signedValue) {
+        return index;
+      }
+    }
+    return NOT_FOUND;
+  }
+
+  /**
+   * Returns the index of the last occurrence of the unsigned byte value in the array
+   *
+   * @param array the array to search
+   * @param value the unsigned byte to search for
+   * @return the index of the last occurrence, or -1 if there is none
+   */
+  public static int lastIndexOf(final byte[] array, final int value) {
+    return lastIndexOf(array, 0, array.length, value);
+  }
+
+  /**
+   * Returns the index of the last occurrence of the unsigned byte value in the range of the array
+   *
+   * @param array     the array to search
+   * @param fromIndex the index of the first byte to search, inclusive
+   * @param toIndex   the index of the last byte to search, exclusive
+   * @param value     the unsigned byte to search for
+   * @return the index of the last occurrence, or -1 if there is none
+   */
+  public static int lastIndexOf(final byte[] array, final int fromIndex, final int toIndex, final int value) {
+    checkRange(array.length, fromIndex, toIndex);
+    long pattern = broadcast(value);
+    int index = toIndex;
+    for (; index - WORD_LENGTH >= fromIndex; index -= WORD_LENGTH) {
+      long found = zeroBytes(getLong(array, index - WORD_LENGTH) ^ pattern);
+      if (found != 0) {
+        return index - 1 - (Long.numberOfTrailingZeros(found) >>> 3);
+      }
+    }
+    byte signedValue = (byte) value;
+    for (index--; index >= fromIndex; index--) {
+      if (array[index] == signedValue) {
+        return index;
+      }
+    }
+    return NOT_FOUND;
+  }
+
+  /**
+   * Returns the index of the last occurrence of the unsigned byte value between position and limit of the buffer
+   *
+   * @param buffer the buffer to search
+   * @param value  the unsigned byte to search for
+   * @return the absolute index of the last occurrence, or -1 if there is none
+   */
+  public static int lastIndexOf(final ByteBuffer buffer, final int value) {
+    if (buffer.hasArray()) {
+      int offset = buffer.arrayOffset();
+      return unshift(lastIndexOf(buffer.array(), offset + buffer.position(), offset + buffer.limit(), value), offset);
+    }
+    long pattern = broadcast(value);
+    int position = buffer.position();
+    int index = buffer.limit();
+    for (; index - WORD_LENGTH >= position; index -= WORD_LENGTH) {
+      long found = zeroBytes(getLong(buffer, index - WORD_LENGTH) ^ pattern);
+      if (found != 0) {
+        return index - 1 - (Long.numberOfTrailingZeros(found) >>> 3);
+      }
+    }
+    byte signedValue = (byte) value;
+    for (index--; index >= position; index--) {
+      if (buffer.get(index) == signedValue) {
+        return index;
+      }
+    }
+    return NOT_FOUND;
+  }
+
+  /**
+   * Returns the index of the first occurrence of the byte pattern in the array
+   *
+   * @param array   the array to search
+   * @param pattern the bytes to search for
+   * @return the index of the first occurrence, or -1 if there is none
+   */
+  public static int indexOf(final byte[] array, final byte[] pattern) {
+    return indexOf(array, 0, array.length, pattern);
+  }
+
+  /**
+   * Returns the index of the first occurrence of the byte pattern in the range of the array
+   * <p>
+   * The pattern must be completely contained in the range. An empty pattern is found at fromIndex
+   * </p>
+   *
+   * @param array     the array to search
+   * @param fromIndex the index of the first byte to search, inclusive
+   * @param toIndex   the index of the last byte to search, exclusive
+   * @param pattern   the bytes to search for
+   * @return the index of the first occurrence, or -1 if there is none
+   */
+  public static int indexOf(final byte[] array, final int fromIndex, final int toIndex, final byte[] pattern) {
+    checkRange(array.length, fromIndex, toIndex);
+    int patternLength = pattern.length;
+    if (patternLength <= 1) {
+      return patternLength == 0 ? fromIndex : indexOf(array, fromIndex, toIndex, pattern[0]);
+    }
+    int[] skip = forwardSkipTable(pattern);
+    int last = patternLength - 1;
+    byte lastByte = pattern[last];
+    int index = fromIndex;
+    while (index <= toIndex - patternLength) {
+      byte current = array[index + last];
+      if (current == lastByte && matches(array, index, pattern, last)) {
+        return index;
+      }
+      index += skip[current & 0xff];
+    }
+    return NOT_FOUND;
+  }
+
+  /**
+   * Returns the index of the first occurrence of the byte pattern between position and limit of the buffer
+   *
+   * @param buffer  the buffer to search
+   * @param pattern the bytes to search for
+   * @return the absolute index of the first occurrence, or -1 if there is none
+   */
+  public static int indexOf(final ByteBuffer buffer, final byte[] pattern) {
+    if (buffer.hasArray()) {
+      int offset = buffer.arrayOffset();
+      return unshift(indexOf(buffer.array(), offset + buffer.position(), offset + buffer.limit(), pattern), offset);
+    }
+    int patternLength = pattern.length;
+    if (patternLength <= 1) {
+      return patternLength == 0 ? buffer.position() : indexOf(buffer, pattern[0]);
+    }
+    int[] skip = forwardSkipTable(pattern);
+    int last = patternLength - 1;
+    byte lastByte = pattern[last];
+    int index = buffer.position();
+    int limit = buffer.limit();
+    while (index <= limit - patternLength) {
+      byte current = buffer.get(index + last);
+      if (current == lastByte && matches(buffer, index, pattern, last)) {
+        return index;
+      }
+      index += skip[current & 0xff];
+    }
+    return NOT_FOUND;
+  }
+
+  /**
+   * Returns the index of the last occurrence of the byte pattern in the array
+   *
+   * @param array   the array to search
+   * @param pattern the bytes to search for
+   * @return the index of the last occurrence, or -1 if there is none
+   */
+  public static int lastIndexOf(final byte[] array, final byte[] pattern) {
+    return lastIndexOf(array, 0, array.length, pattern);
+  }
+
+  /**
+   * Returns the index of the last occurrence of the byte pattern in the range of the array
+   * <p>
+   * The pattern must be completely contained in the range. An empty pattern is found at toIndex
+   * </p>
+   *
+   * @param array     the array to search
+   * @param fromIndex the index of the first byte to search, inclusive
+   * @param toIndex   the index of the last byte to search, exclusive
+   * @param pattern   the bytes to search for
+   * @return the index of the last occurrence, or -1 if there is none
+   */
+  public static int lastIndexOf(final byte[] array, final int fromIndex, final int toIndex, final byte[] pattern) {
+    checkRange(array.length, fromIndex, toIndex);
+    int patternLength = pattern.length;
+    if (patternLength <= 1) {
+      return patternLength == 0 ? toIndex : lastIndexOf(array, fromIndex, toIndex, pattern[0]);
+    }
+    int[] skip = backwardSkipTable(pattern);
+    byte firstByte = pattern[0];
+    int index = toIndex - patternLength;
+    while (index >= fromIndex) {
+      byte current = array[index];
+      if (current == firstByte && matches(array, index, pattern, patternLength)) {
+        return index;
+      }
+      index -= skip[current & 0xff];
+    }
+    return NOT_FOUND;
+  }
+
+  /**
+   * Returns the index of the last occurrence of the byte pattern between position and limit of the buffer
+   *
+   * @param buffer  the buffer to search
+   * @param pattern the bytes to search for
+   * @return the absolute index of the last occurrence, or -1 if there is none
+   */
+  public static int lastIndexOf(final ByteBuffer buffer, final byte[] pattern) {
+    if (buffer.hasArray()) {
+      int offset = buffer.arrayOffset();
+      return unshift(lastIndexOf(buffer.array(), offset + buffer.position(), offset + buffer.limit(), pattern), offset);
+    }
+    int patternLength = pattern.length;
+    if (patternLength <= 1) {
+      return patternLength == 0 ? buffer.limit() : lastIndexOf(buffer, pattern[0]);
+    }
+    int[] skip = backwardSkipTable(pattern);
+    byte firstByte = pattern[0];
+    int position = buffer.position();
+    int index = buffer.limit() - patternLength;
+    while (index >= position) {
+      byte current = buffer.get(index);
+      if (current == firstByte && matches(buffer, index, pattern, patternLength)) {
+        return index;
+      }
+      index -= skip[current & 0xff];
+    }
+    return NOT_FOUND;
+  }
+
+  /**
+   * Finds all occurrences of any of the delimiters in the range of the array and stores their indexes in offsets
+   * <p>
+   * The indexes are stored in ascending order. At most offsets.length indexes are stored. If offsets is full, the
+   * search can be continued after the last stored index
+   * </p>
+   *
+   * @param array      the array to search
+   * @param fromIndex  the index of the first byte to search, inclusive
+   * @param toIndex    the index of the last byte to search, exclusive
+   * @param delimiters the bytes to search for
+   * @param offsets    the array to store the indexes of the found delimiters in
+   * @return the number of indexes stored into offsets
+   */
+  public static int findAll(final byte[] array, final int fromIndex, final int toIndex, final byte[] delimiters,
+                            final int[] offsets) {
+    checkRange(array.length, fromIndex, toIndex);
+    if (delimiters.length == 0 || offsets.length == 0) {
+      return 0;
+    }
+    if (delimiters.length > MAX_WORD_DELIMITERS) {
+      boolean[] isDelimiter = delimiterTable(delimiters);
+      int count = 0;
+      for (int index = fromIndex; index < toIndex; index++) {
+        if (isDelimiter[array[index] & 0xff]) {
+          offsets[count++] = index;
+          if (count == offsets.length) {
+            return count;
+          }
+        }
+      }
+      return count;
+    }
+    long[] patterns = delimiterPatterns(delimiters);
+    int count = 0;
+    int index = fromIndex;
+    for (; index + WORD_LENGTH <= toIndex; index += WORD_LENGTH) {
+      long found = findAny(getLong(array, index), patterns);
+      while (found != 0) {
+        offsets[count++] = index + (Long.numberOfLeadingZeros(found) >>> 3);
+        if (count == offsets.length) {
+          return count;
+        }
+        found &= ~(Long.MIN_VALUE >>> Long.numberOfLeadingZeros(found));
+      }
+    }
+    for (; index < toIndex; index++) {
+      if (contains(delimiters, array[index])) {
+        offsets[count++] = index;
+        if (count == offsets.length) {
+          return count;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Finds all occurrences of any of the delimiters between position and limit of the buffer and stores their
+   * absolute indexes in offsets
+   * <p>
+   * The indexes are stored in ascending order. At most offsets.length indexes are stored. If offsets is full, the
+   * search can be continued after the last stored index
+   * </p>
+   *
+   * @param buffer     the buffer to search
+   * @param delimiters the bytes to search for
+   * @param offsets    the array to store the indexes of the found delimiters in
+   * @return the number of indexes stored into offsets
+   */
+  public static int findAll(final ByteBuffer buffer, final byte[] delimiters, final int[] offsets) {
+    if (buffer.hasArray()) {
+      int offset = buffer.arrayOffset();
+      int count = findAll(buffer.array(), offset + buffer.position(), offset + buffer.limit(), delimiters, offsets);
+      for (int i = 0; i < count; i++) {
+        offsets[i] -= offset;
+      }
+      return count;
+    }
+    if (delimiters.length == 0 || offsets.length == 0) {
+      return 0;
+    }
+    int index = buffer.position();
+    int limit = buffer.limit();
+    if (delimiters.length > MAX_WORD_DELIMITERS) {
+      boolean[] isDelimiter = delimiterTable(delimiters);
+      int count = 0;
+      for (; index < limit; index++) {
+        if (isDelimiter[buffer.get(index) & 0xff]) {
+          offsets[count++] = index;
+          if (count == offsets.length) {
+            return count;
+          }
+        }
+      }
+      return count;
+    }
+    long[] patterns = delimiterPatterns(delimiters);
+    int count = 0;
+    for (; index + WORD_LENGTH <= limit; index += WORD_LENGTH) {
+      long found = findAny(getLong(buffer, index), patterns);
+      while (found != 0) {
+        offsets[count++] = index + (Long.numberOfLeadingZeros(found) >>> 3);
+        if (count == offsets.length) {
+          return count;
+        }
+        found &= ~(Long.MIN_VALUE >>> Long.numberOfLeadingZeros(found));
+      }
+    }
+    for (; index < limit; index++) {
+      if (contains(delimiters, buffer.get(index))) {
+        offsets[count++] = index;
+        if (count == offsets.length) {
+          return count;
+        }
+      }
+    }
+    return count;
+  }
+
+  private static int unshift(final int index, final int offset) {
+    return index == NOT_FOUND ? NOT_FOUND : index - offset;
+  }
+
+  private static int[] forwardSkipTable(final byte[] pattern) {
+    int[] skip = new int[TABLE_SIZE];
+    int last = pattern.length - 1;
+    Arrays.fill(skip, pattern.length);
+    for (int i = 0; i < last; i++) {
+      skip[pattern[i] & 0xff] = last - i;
+    }
+    return skip;
+  }
+
+  private static int[] backwardSkipTable(final byte[] pattern) {
+    int[] skip = new int[TABLE_SIZE];
+    Arrays.fill(skip, pattern.length);
+    for (int i = pattern.length - 1; i > 0; i--) {
+      skip[pattern[i] & 0xff] = i;
+    }
+    return skip;
+  }
+
+  private static boolean matches(final byte[] array, final int index, final byte[] pattern, final int length) {
+    for (int i = 0; i < length; i++) {
+      if (array[index + i] != pattern[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean matches(final ByteBuffer buffer, final int index, final byte[] pattern, final int length) {
+    for (int i = 0; i < length; i++) {
+      if (buffer.get(index + i) != pattern[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean[] delimiterTable(final byte[] delimiters) {
+    boolean[] isDelimiter = new boolean[TABLE_SIZE];
+    for (byte delimiter : delimiters) {
+      isDelimiter[delimiter & 0xff] = true;
+    }
+    return isDelimiter;
+  }
+
+  private static long[] delimiterPatterns(final byte[] delimiters) {
+    long[] patterns = new long[delimiters.length];
+    for (int i = 0; i < delimiters.length; i++) {
+      patterns[i] = broadcast(delimiters[i]);
+    }
+    return patterns;
+  }
+
+  private static long findAny(final long word, final long[] patterns) {
+    long found = 0;
+    for (long pattern : patterns) {
+      found |= zeroBytes(word ^ pattern);
+    }
+    return found;
+  }
+
+  private static boolean contains(final byte[] delimiters, final byte value) {
+    for (byte delimiter : delimiters) {
+      if (delimiter == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
@@ -0,0 +1,65 @@
+package org.ak80.ubyte;
+
+import java.util.Arrays;
+
+/**
+ * Package private lookup tables for encoding and decoding hexadecimal digits
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+final class HexDigits {
+
+  static final int NO_DIGIT = -1;
+
+  private static final char[] LOWER_CASE = "0123456789abcdef".toCharArray();
+  private static final int[] VALUES = new int[256];
+
+  static {
+    Arrays.fill(VALUES, NO_DIGIT);
+    for (int value = 0; value < 16; value++) {
+      VALUES[LOWER_CASE[value]] = value;
+      VALUES[Character.toUpperCase(LOWER_CASE[value])] = value;
+    }
+  }
+
+  private HexDigits() {
+    // hide
+  }
+
+  /**
+   * Returns the lower case hex digit for the rightmost four bits of the value
+   *
+   * @param value the value holding the four bits
+   * @return the hex digit
+   */
+  static char toDigit(final int value) {
+    return LOWER_CASE[value & 0x0f];
+  }
+
+  /**
+   * Returns the value of an upper or lower case hex digit
+   *
+   * @param character the character to convert
+   * @return the value of the digit, or -1 if the character is not a hex digit
+   */
+  static int toValue(final int character) {
+    return character >= 0 && character < VALUES.length ? VALUES[character] : NO_DIGIT;
+  }
+
+}
@@ -0,0 +1,214 @@
+package org.ak80.ubyte;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream that decodes hex text from the underlying stream into raw bytes
+ * <p>
+ * Both the format of {@link Ubyte#formatUnsignedByteArray(int[])}, e.g. <pre>{ 0x00, 0x01 }</pre> and plain hex
+ * text, e.g. <pre>0001ff</pre> are accepted. Values may be prefixed with 0x, digits may be upper or lower case, and
+ * curly braces, commas and white spaces separate values. A value with a single digit is accepted like in
+ * {@link Ubyte#parseUnsignedByteArray(String)}, any other odd number of digits is an error.
+ * </p>
+ * <p>
+ * The text is read through a bounded buffer, so memory stays constant independent of the size of the input.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public class HexInputStream extends FilterInputStream {
+
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+  private static final int END_OF_STREAM = -1;
+  private static final int NO_NIBBLE = -1;
+
+  private final byte[] text;
+  private final byte[] single = new byte[1];
+  private int textPosition;
+  private int textLimit;
+  private boolean endOfText;
+
+  private int pendingNibble = NO_NIBBLE;
+  private int digitsInValue;
+  private long textOffset;
+
+  /**
+   * Creates a stream decoding the hex text of the given stream
+   *
+   * @param in the stream to read the hex text from
+   */
+  public HexInputStream(final InputStream in) {
+    this(in, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a stream decoding the hex text of the given stream, using a text buffer of the given size
+   *
+   * @param in         the stream to read the hex text from
+   * @param bufferSize the size of the text buffer
+   */
+  public HexInputStream(final InputStream in, final int bufferSize) {
+    super(in);
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException(String.format("The buffer size %s is not allowed, it must be positive", bufferSize));
+    }
+    this.text = new byte[bufferSize];
+  }
+
+  @Override
+  public int read() throws IOException {
+    return read(single, 0, 1) == END_OF_STREAM ? END_OF_STREAM : Ubyte.toUnsignedByte(single[0]);
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    ByteAccess.checkOffsetCount(b.length, off, len);
+    if (len == 0) {
+      return 0;
+    }
+    return decode(b, off, len);
+  }
+
+  @Override
+  public long skip(final long n) throws IOException {
+    if (n <= 0) {
+      return 0;
+    }
+    long remaining = n;
+    while (remaining > 0) {
+      int count = decode(null, 0, (int) Math.min(remaining, Integer.MAX_VALUE));
+      if (count == END_OF_STREAM) {
+        break;
+      }
+      remaining -= count;
+    }
+    return n - Math.max(remaining, 0);
+  }
+
+  /**
+   * Decodes up to len bytes into b, or only counts them if b is null
+   */
+  private int decode(final byte[] b, final int off, final int len) throws IOException {
+    int position = off;
+    int end = off + len;
+    while (position < end) {
+      if (textPosition == textLimit) {
+        if (position > off || !fillText()) {
+          break;
+        }
+      }
+      int character = text[textPosition++] & 0xff;
+      int value = HexDigits.toValue(character);
+      if (value != HexDigits.NO_DIGIT) {
+        digitsInValue = Math.min(digitsInValue + 1, 2);
+        if (pendingNibble == NO_NIBBLE) {
+          pendingNibble = value;
+        } else {
+          store(b, position++, (pendingNibble << 4) | value);
+          pendingNibble = NO_NIBBLE;
+        }
+      } else if (isPrefix(character)) {
+        pendingNibble = NO_NIBBLE;
+        digitsInValue = 0;
+      } else if (isSeparator(character)) {
+        position = endValue(b, position);
+      } else {
+        throw new IOException(String.format("Unexpected character '%s' at offset %s", (char) character, textOffset + textPosition - 1));
+      }
+    }
+    if (endOfText && textPosition == textLimit && position < end) {
+      position = endValue(b, position);
+    }
+    return position == off ? END_OF_STREAM : position - off;
+  }
+
+  /**
+   * Returns 0, as the number of bytes that can be decoded depends on the text format
+   *
+   * @return 0
+   */
+  @Override
+  public int available() {
+    return 0;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public synchronized void mark(final int readlimit) {
+    // not supported
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    throw new IOException("mark/reset not supported");
+  }
+
+  private boolean fillText() throws IOException {
+    if (endOfText) {
+      return false;
+    }
+    textOffset += textLimit;
+    textPosition = 0;
+    textLimit = 0;
+    int count = in.read(text, 0, text.length);
+    while (count == 0) {
+      count = in.read(text, 0, text.length);
+    }
+    if (count == END_OF_STREAM) {
+      endOfText = true;
+      return false;
+    }
+    textLimit = count;
+    return true;
+  }
+
+  private boolean isPrefix(final int character) {
+    return (character == 'x' || character == 'X') && pendingNibble == 0 && digitsInValue == 1;
+  }
+
+  private static boolean isSeparator(final int character) {
+    return character == ',' || character == '{' || character == '}' || Character.isWhitespace(character);
+  }
+
+  private int endValue(final byte[] b, final int position) throws IOException {
+    int newPosition = position;
+    if (pendingNibble != NO_NIBBLE) {
+      if (digitsInValue != 1) {
+        throw new IOException(String.format("Odd number of hex digits before offset %s", textOffset + textPosition));
+      }
+      store(b, newPosition++, pendingNibble);
+    }
+    pendingNibble = NO_NIBBLE;
+    digitsInValue = 0;
+    return newPosition;
+  }
+
+  private static void store(final byte[] b, final int position, final int value) {
+    if (b != null) {
+      b[position] = (byte) value;
+    }
+  }
+
+}
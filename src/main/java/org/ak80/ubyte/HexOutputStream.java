@@ -0,0 +1,200 @@
+package org.ak80.ubyte;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An output stream that encodes the bytes written to it as hex text into the underlying stream
+ * <p>
+ * With {@link Format#ARRAY} the text has the format of {@link Ubyte#formatUnsignedByteArray(int[])}, e.g.
+ * <pre>{ 0x00, 0x01 }</pre> with {@link Format#PLAIN} it is plain lower case hex text, e.g. <pre>0001</pre>
+ * The closing brace of the array format is written by {@link #finish()} or {@link #close()}.
+ * </p>
+ * <p>
+ * The text is written through a bounded buffer, so memory stays constant independent of the size of the output.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public class HexOutputStream extends FilterOutputStream {
+
+  /**
+   * The text format to write
+   */
+  public enum Format {
+    /**
+     * Plain hex digits without prefix or separator
+     */
+    PLAIN,
+    /**
+     * Values prefixed with 0x, comma separated and embedded in curly braces
+     */
+    ARRAY
+  }
+
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+  private static final int MIN_BUFFER_SIZE = 8;
+
+  private static final byte[] ARRAY_START = {'{', ' ', '0', 'x'};
+  private static final byte[] ARRAY_SEPARATOR = {',', ' ', '0', 'x'};
+  private static final byte[] ARRAY_END = {' ', '}'};
+  private static final byte[] EMPTY_ARRAY = {'{', ' ', '}'};
+
+  private final Format format;
+  private final byte[] text;
+  private int textPosition;
+  private boolean empty = true;
+  private boolean finished;
+
+  /**
+   * Creates a stream writing plain hex text into the given stream
+   *
+   * @param out the stream to write the hex text to
+   */
+  public HexOutputStream(final OutputStream out) {
+    this(out, Format.PLAIN);
+  }
+
+  /**
+   * Creates a stream writing hex text in the given format into the given stream
+   *
+   * @param out    the stream to write the hex text to
+   * @param format the format of the hex text
+   */
+  public HexOutputStream(final OutputStream out, final Format format) {
+    this(out, format, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a stream writing hex text in the given format into the given stream, using a text buffer of the given
+   * size
+   *
+   * @param out        the stream to write the hex text to
+   * @param format     the format of the hex text
+   * @param bufferSize the size of the text buffer, at least 8
+   */
+  public HexOutputStream(final OutputStream out, final Format format, final int bufferSize) {
+    super(out);
+    if (bufferSize < MIN_BUFFER_SIZE) {
+      throw new IllegalArgumentException(String.format("The buffer size %s is not allowed, it must be at least %s", bufferSize, MIN_BUFFER_SIZE));
+    }
+    this.format = format;
+    this.text = new byte[bufferSize];
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    checkNotFinished();
+    encode(b);
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    ByteAccess.checkOffsetCount(b.length, off, len);
+    checkNotFinished();
+    int end = off + len;
+    if (format == Format.PLAIN) {
+      int position = off;
+      while (position < end) {
+        if (text.length - textPosition < 2) {
+          flushText();
+        }
+        int count = Math.min(end - position, (text.length - textPosition) / 2);
+        for (int i = 0; i < count; i++) {
+          int value = b[position++];
+          text[textPosition++] = (byte) HexDigits.toDigit(value >>> 4);
+          text[textPosition++] = (byte) HexDigits.toDigit(value);
+        }
+      }
+    } else {
+      for (int position = off; position < end; position++) {
+        encode(b[position]);
+      }
+    }
+  }
+
+  /**
+   * Writes the end of the hex text, without closing the underlying stream
+   * <p>
+   * No more bytes can be written after finishing. Finishing more than once has no effect.
+   * </p>
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public void finish() throws IOException {
+    if (finished) {
+      return;
+    }
+    if (format == Format.ARRAY) {
+      append(empty ? EMPTY_ARRAY : ARRAY_END);
+    }
+    finished = true;
+    flush();
+  }
+
+  @Override
+  public void flush() throws IOException {
+    flushText();
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      finish();
+    } finally {
+      out.close();
+    }
+  }
+
+  private void encode(final int value) throws IOException {
+    if (format == Format.ARRAY) {
+      append(empty ? ARRAY_START : ARRAY_SEPARATOR);
+    }
+    if (text.length - textPosition < 2) {
+      flushText();
+    }
+    text[textPosition++] = (byte) HexDigits.toDigit(value >>> 4);
+    text[textPosition++] = (byte) HexDigits.toDigit(value);
+    empty = false;
+  }
+
+  private void append(final byte[] bytes) throws IOException {
+    if (text.length - textPosition < bytes.length) {
+      flushText();
+    }
+    System.arraycopy(bytes, 0, text, textPosition, bytes.length);
+    textPosition += bytes.length;
+  }
+
+  private void flushText() throws IOException {
+    if (textPosition > 0) {
+      out.write(text, 0, textPosition);
+      textPosition = 0;
+    }
+  }
+
+  private void checkNotFinished() throws IOException {
+    if (finished) {
+      throw new IOException("The stream is already finished");
+    }
+  }
+
+}
@@ -0,0 +1,432 @@
+package org.ak80.ubyte;
+
+import static org.ak80.ubyte.ByteAccess.checkRange;
+
+/**
+ * Formats and parses IPv4 addresses, MAC addresses and UUIDs
+ * <p>
+ * An IPv4 address is an unsigned four byte value stored in a long, like the values of
+ * {@link Ubyte#formatQuadByteAsHex(long)}, and is written as dotted quad, e.g. <pre>192.168.0.1</pre>
+ * A MAC address is six bytes written as colon separated hex, e.g. <pre>00:1a:2b:3c:4d:5e</pre>
+ * A UUID is sixteen bytes in the text form of RFC 4122, e.g. <pre>123e4567-e89b-12d3-a456-426614174000</pre>
+ * Hex digits are written in lower case, and parsed in upper or lower case.
+ * </p>
+ * <p>
+ * Formatting appends to a StringBuilder or writes into a char array, parsing reads a CharSequence directly, so no
+ * intermediate Strings are created. Text that is not valid causes an IllegalArgumentException.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public final class IdentifierFormat {
+
+  /**
+   * The maximum length of a formatted IPv4 address
+   */
+  public static final int IPV4_MAX_LENGTH = 15;
+
+  /**
+   * The length of a formatted MAC address
+   */
+  public static final int MAC_LENGTH = 17;
+
+  /**
+   * The length of a formatted UUID
+   */
+  public static final int UUID_LENGTH = 36;
+
+  private static final int IPV4_BYTES = 4;
+  private static final int MAC_BYTES = 6;
+  private static final int UUID_BYTES = 16;
+  private static final long QUAD_BYTE_MASK = 0xffffffffL;
+
+  private static final char IPV4_SEPARATOR = '.';
+  private static final char MAC_SEPARATOR = ':';
+  private static final char UUID_SEPARATOR = '-';
+
+  private static final String IPV4 = "IPv4 address";
+  private static final String MAC = "MAC address";
+  private static final String UUID = "UUID";
+
+  private IdentifierFormat() {
+    // hide
+  }
+
+  /**
+   * Returns the IPv4 address as dotted quad
+   *
+   * @param address the address, only the rightmost four bytes are used
+   * @return the formatted address
+   */
+  public static String formatIpv4(final long address) {
+    return formatIpv4(address, new StringBuilder(IPV4_MAX_LENGTH)).toString();
+  }
+
+  /**
+   * Appends the IPv4 address as dotted quad to the builder
+   *
+   * @param address the address, only the rightmost four bytes are used
+   * @param builder the builder to append to
+   * @return the builder
+   */
+  public static StringBuilder formatIpv4(final long address, final StringBuilder builder) {
+    for (int shift = 24; shift >= 0; shift -= 8) {
+      builder.append((int) (address >>> shift) & 0xff);
+      if (shift > 0) {
+        builder.append(IPV4_SEPARATOR);
+      }
+    }
+    return builder;
+  }
+
+  /**
+   * Writes the IPv4 address as dotted quad into the array
+   *
+   * @param address the address, only the rightmost four bytes are used
+   * @param target  the array to write to, with room for the address
+   * @param offset  the index in the target of the first character
+   * @return the number of characters written
+   */
+  public static int formatIpv4(final long address, final char[] target, final int offset) {
+    int length = IPV4_BYTES - 1;
+    for (int shift = 24; shift >= 0; shift -= 8) {
+      length += decimalLength((int) (address >>> shift) & 0xff);
+    }
+    checkRange(target.length, offset, offset + length);
+    int position = offset;
+    for (int shift = 24; shift >= 0; shift -= 8) {
+      int value = (int) (address >>> shift) & 0xff;
+      int digits = decimalLength(value);
+      for (int i = position + digits - 1; i >= position; i--) {
+        target[i] = (char) ('0' + value % 10);
+        value /= 10;
+      }
+      position += digits;
+      if (shift > 0) {
+        target[position++] = IPV4_SEPARATOR;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Parses an IPv4 address in dotted quad notation
+   * <p>
+   * Each of the four parts must be a decimal number from 0 to 255 without leading zeros
+   * </p>
+   *
+   * @param text the text to parse
+   * @return the address as unsigned four byte value
+   */
+  public static long parseIpv4(final CharSequence text) {
+    return parseIpv4(text, 0, text.length());
+  }
+
+  /**
+   * Parses an IPv4 address in dotted quad notation from a range of the text
+   *
+   * @param text      the text to parse
+   * @param fromIndex the index of the first character, inclusive
+   * @param toIndex   the index of the last character, exclusive
+   * @return the address as unsigned four byte value
+   */
+  public static long parseIpv4(final CharSequence text, final int fromIndex, final int toIndex) {
+    checkRange(text.length(), fromIndex, toIndex);
+    long address = 0;
+    int index = fromIndex;
+    for (int part = 0; part < IPV4_BYTES; part++) {
+      if (part > 0) {
+        if (index == toIndex || text.charAt(index) != IPV4_SEPARATOR) {
+          throw invalid(IPV4, text, fromIndex, toIndex);
+        }
+        index++;
+      }
+      int start = index;
+      int value = 0;
+      while (index < toIndex && index - start < 3 && isDecimalDigit(text.charAt(index))) {
+        value = value * 10 + text.charAt(index) - '0';
+        index++;
+      }
+      if (index == start || value > 0xff || index - start > 1 && text.charAt(start) == '0') {
+        throw invalid(IPV4, text, fromIndex, toIndex);
+      }
+      address = address << 8 | value;
+    }
+    if (index != toIndex) {
+      throw invalid(IPV4, text, fromIndex, toIndex);
+    }
+    return address & QUAD_BYTE_MASK;
+  }
+
+  /**
+   * Returns the MAC address as colon separated hex
+   *
+   * @param bytes the six bytes of the address
+   * @return the formatted address
+   */
+  public static String formatMac(final byte[] bytes) {
+    return formatMac(bytes, 0, new StringBuilder(MAC_LENGTH)).toString();
+  }
+
+  /**
+   * Appends the MAC address as colon separated hex to the builder
+   *
+   * @param bytes   the array holding the address
+   * @param offset  the index of the first of the six bytes
+   * @param builder the builder to append to
+   * @return the builder
+   */
+  public static StringBuilder formatMac(final byte[] bytes, final int offset, final StringBuilder builder) {
+    checkRange(bytes.length, offset, offset + MAC_BYTES);
+    for (int i = offset; i < offset + MAC_BYTES; i++) {
+      if (i > offset) {
+        builder.append(MAC_SEPARATOR);
+      }
+      builder.append(HexDigits.toDigit(bytes[i] >>> 4)).append(HexDigits.toDigit(bytes[i]));
+    }
+    return builder;
+  }
+
+  /**
+   * Writes the MAC address as colon separated hex into the array
+   *
+   * @param bytes        the array holding the address
+   * @param offset       the index of the first of the six bytes
+   * @param target       the array to write to, with room for {@link #MAC_LENGTH} characters
+   * @param targetOffset the index in the target of the first character
+   * @return the number of characters written
+   */
+  public static int formatMac(final byte[] bytes, final int offset, final char[] target, final int targetOffset) {
+    checkRange(bytes.length, offset, offset + MAC_BYTES);
+    checkRange(target.length, targetOffset, targetOffset + MAC_LENGTH);
+    int position = targetOffset;
+    for (int i = offset; i < offset + MAC_BYTES; i++) {
+      if (i > offset) {
+        target[position++] = MAC_SEPARATOR;
+      }
+      target[position++] = HexDigits.toDigit(bytes[i] >>> 4);
+      target[position++] = HexDigits.toDigit(bytes[i]);
+    }
+    return MAC_LENGTH;
+  }
+
+  /**
+   * Parses a MAC address in colon separated hex
+   *
+   * @param text the text to parse
+   * @return the six bytes of the address
+   */
+  public static byte[] parseMac(final CharSequence text) {
+    return parseMac(text, 0, text.length());
+  }
+
+  /**
+   * Parses a MAC address in colon separated hex from a range of the text
+   *
+   * @param text      the text to parse
+   * @param fromIndex the index of the first character, inclusive
+   * @param toIndex   the index of the last character, exclusive
+   * @return the six bytes of the address
+   */
+  public static byte[] parseMac(final CharSequence text, final int fromIndex, final int toIndex) {
+    byte[] bytes = new byte[MAC_BYTES];
+    parseMac(text, fromIndex, toIndex, bytes, 0);
+    return bytes;
+  }
+
+  /**
+   * Parses a MAC address in colon separated hex into the array
+   *
+   * @param text   the text to parse
+   * @param target the array to store the six bytes of the address in
+   * @param offset the index in the target of the first byte
+   */
+  public static void parseMac(final CharSequence text, final byte[] target, final int offset) {
+    parseMac(text, 0, text.length(), target, offset);
+  }
+
+  /**
+   * Parses a MAC address in colon separated hex from a range of the text into the array
+   *
+   * @param text      the text to parse
+   * @param fromIndex the index of the first character, inclusive
+   * @param toIndex   the index of the last character, exclusive
+   * @param target    the array to store the six bytes of the address in
+   * @param offset    the index in the target of the first byte
+   */
+  public static void parseMac(final CharSequence text, final int fromIndex, final int toIndex,
+                              final byte[] target, final int offset) {
+    checkRange(text.length(), fromIndex, toIndex);
+    checkRange(target.length, offset, offset + MAC_BYTES);
+    if (toIndex - fromIndex != MAC_LENGTH) {
+      throw invalid(MAC, text, fromIndex, toIndex);
+    }
+    for (int i = 0; i < MAC_BYTES; i++) {
+      int index = fromIndex + 3 * i;
+      if (i > 0 && text.charAt(index - 1) != MAC_SEPARATOR) {
+        throw invalid(MAC, text, fromIndex, toIndex);
+      }
+      target[offset + i] = (byte) parseHexByte(text, index, MAC, fromIndex, toIndex);
+    }
+  }
+
+  /**
+   * Returns the UUID in its text form
+   *
+   * @param bytes the sixteen bytes of the UUID
+   * @return the formatted UUID
+   */
+  public static String formatUuid(final byte[] bytes) {
+    return formatUuid(bytes, 0, new StringBuilder(UUID_LENGTH)).toString();
+  }
+
+  /**
+   * Appends the UUID in its text form to the builder
+   *
+   * @param bytes   the array holding the UUID
+   * @param offset  the index of the first of the sixteen bytes
+   * @param builder the builder to append to
+   * @return the builder
+   */
+  public static StringBuilder formatUuid(final byte[] bytes, final int offset, final StringBuilder builder) {
+    checkRange(bytes.length, offset, offset + UUID_BYTES);
+    for (int i = 0; i < UUID_BYTES; i++) {
+      if (hasUuidSeparatorBefore(i)) {
+        builder.append(UUID_SEPARATOR);
+      }
+      builder.append(HexDigits.toDigit(bytes[offset + i] >>> 4)).append(HexDigits.toDigit(bytes[offset + i]));
+    }
+    return builder;
+  }
+
+  /**
+   * Writes the UUID in its text form into the array
+   *
+   * @param bytes        the array holding the UUID
+   * @param offset       the index of the first of the sixteen bytes
+   * @param target       the array to write to, with room for {@link #UUID_LENGTH} characters
+   * @param targetOffset the index in the target of the first character
+   * @return the number of characters written
+   */
+  public static int formatUuid(final byte[] bytes, final int offset, final char[] target, final int targetOffset) {
+    checkRange(bytes.length, offset, offset + UUID_BYTES);
+    checkRange(target.length, targetOffset, targetOffset + UUID_LENGTH);
+    int position = targetOffset;
+    for (int i = 0; i < UUID_BYTES; i++) {
+      if (hasUuidSeparatorBefore(i)) {
+        target[position++] = UUID_SEPARATOR;
+      }
+      target[position++] = HexDigits.toDigit(bytes[offset + i] >>> 4);
+      target[position++] = HexDigits.toDigit(bytes[offset + i]);
+    }
+    return UUID_LENGTH;
+  }
+
+  /**
+   * Parses a UUID in its text form
+   *
+   * @param text the text to parse
+   * @return the sixteen bytes of the UUID
+   */
+  public static byte[] parseUuid(final CharSequence text) {
+    return parseUuid(text, 0, text.length());
+  }
+
+  /**
+   * Parses a UUID in its text form from a range of the text
+   *
+   * @param text      the text to parse
+   * @param fromIndex the index of the first character, inclusive
+   * @param toIndex   the index of the last character, exclusive
+   * @return the sixteen bytes of the UUID
+   */
+  public static byte[] parseUuid(final CharSequence text, final int fromIndex, final int toIndex) {
+    byte[] bytes = new byte[UUID_BYTES];
+    parseUuid(text, fromIndex, toIndex, bytes, 0);
+    return bytes;
+  }
+
+  /**
+   * Parses a UUID in its text form into the array
+   *
+   * @param text   the text to parse
+   * @param target the array to store the sixteen bytes of the UUID in
+   * @param offset the index in the target of the first byte
+   */
+  public static void parseUuid(final CharSequence text, final byte[] target, final int offset) {
+    parseUuid(text, 0, text.length(), target, offset);
+  }
+
+  /**
+   * Parses a UUID in its text form from a range of the text into the array
+   *
+   * @param text      the text to parse
+   * @param fromIndex the index of the first character, inclusive
+   * @param toIndex   the index of the last character, exclusive
+   * @param target    the array to store the sixteen bytes of the UUID in
+   * @param offset    the index in the target of the first byte
+   */
+  public static void parseUuid(final CharSequence text, final int fromIndex, final int toIndex,
+                               final byte[] target, final int offset) {
+    checkRange(text.length(), fromIndex, toIndex);
+    checkRange(target.length, offset, offset + UUID_BYTES);
+    if (toIndex - fromIndex != UUID_LENGTH) {
+      throw invalid(UUID, text, fromIndex, toIndex);
+    }
+    int index = fromIndex;
+    for (int i = 0; i < UUID_BYTES; i++) {
+      if (hasUuidSeparatorBefore(i)) {
+        if (text.charAt(index) != UUID_SEPARATOR) {
+          throw invalid(UUID, text, fromIndex, toIndex);
+        }
+        index++;
+      }
+      target[offset + i] = (byte) parseHexByte(text, index, UUID, fromIndex, toIndex);
+      index += 2;
+    }
+  }
+
+  private static int decimalLength(final int value) {
+    return value >= 100 ? 3 : value >= 10 ? 2 : 1;
+  }
+
+  private static boolean isDecimalDigit(final char character) {
+    return character >= '0' && character <= '9';
+  }
+
+  private static boolean hasUuidSeparatorBefore(final int byteIndex) {
+    return byteIndex == 4 || byteIndex == 6 || byteIndex == 8 || byteIndex == 10;
+  }
+
+  private static int parseHexByte(final CharSequence text, final int index, final String kind,
+                                  final int fromIndex, final int toIndex) {
+    int high = HexDigits.toValue(text.charAt(index));
+    int low = HexDigits.toValue(text.charAt(index + 1));
+    if (high == HexDigits.NO_DIGIT || low == HexDigits.NO_DIGIT) {
+      throw invalid(kind, text, fromIndex, toIndex);
+    }
+    return high << 4 | low;
+  }
+
+  private static IllegalArgumentException invalid(final String kind, final CharSequence text,
+                                                  final int fromIndex, final int toIndex) {
+    return new IllegalArgumentException(String.format("'%s' is not a valid %s", text.subSequence(fromIndex, toIndex), kind));
+  }
+
+}
@@ -0,0 +1,319 @@
+package org.ak80.ubyte;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.ak80.ubyte.ByteAccess.WORD_LENGTH;
+import static org.ak80.ubyte.ByteAccess.broadcast;
+import static org.ak80.ubyte.ByteAccess.checkRange;
+import static org.ak80.ubyte.ByteAccess.getLong;
+
+/**
+ * Provides run length encoding and decoding in the PackBits format
+ * <p>
+ * The encoded data is a sequence of packets, each starting with a header byte n, treated as signed byte:
+ * </p>
+ * <ul>
+ * <li>0 to 127: n + 1 literal bytes follow</li>
+ * <li>-1 to -127: one byte follows, which is repeated 1 - n times</li>
+ * <li>-128: no operation, skipped when decoding</li>
+ * </ul>
+ * <p>
+ * Runs of three or more equal bytes are stored as repeat packets, runs are detected eight bytes at a time. The
+ * encoded data is never longer than {@link #maxEncodedLength(int)}, i.e. one byte per 128 bytes more than the input.
+ * Encoded chunks can simply be concatenated, so chunked input can be encoded chunk by chunk. For streams use
+ * {@link PackBitsOutputStream} and {@link PackBitsInputStream}.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public final class PackBits {
+
+  static final int MAX_PACKET_LENGTH = 128;
+  static final int MIN_REPEAT_LENGTH = 3;
+  static final byte NO_OPERATION = -128;
+
+  private PackBits() {
+    // hide
+  }
+
+  /**
+   * Returns the maximum length of the encoded data for input of the given length
+   *
+   * @param length the length of the input
+   * @return the maximum encoded length
+   */
+  public static int maxEncodedLength(final int length) {
+    return length + (length + MAX_PACKET_LENGTH - 1) / MAX_PACKET_LENGTH;
+  }
+
+  /**
+   * Encodes the array
+   *
+   * @param array the bytes to encode
+   * @return the encoded bytes
+   */
+  public static byte[] encode(final byte[] array) {
+    byte[] encoded = new byte[maxEncodedLength(array.length)];
+    return Arrays.copyOf(encoded, encode(array, 0, array.length, encoded, 0));
+  }
+
+  /**
+   * Encodes the range of the source array into the target array
+   *
+   * @param source       the bytes to encode
+   * @param fromIndex    the index of the first byte to encode, inclusive
+   * @param toIndex      the index of the last byte to encode, exclusive
+   * @param target       the array to store the encoded bytes in, with room for {@link #maxEncodedLength(int)} bytes
+   * @param targetOffset the index in the target of the first encoded byte
+   * @return the number of encoded bytes
+   */
+  public static int encode(final byte[] source, final int fromIndex, final int toIndex,
+                           final byte[] target, final int targetOffset) {
+    checkRange(source.length, fromIndex, toIndex);
+    checkRange(target.length, targetOffset, targetOffset + maxEncodedLength(toIndex - fromIndex));
+    int position = targetOffset;
+    int literalStart = fromIndex;
+    int index = fromIndex;
+    while (index < toIndex) {
+      int run = runLength(source, index, Math.min(toIndex, index + MAX_PACKET_LENGTH));
+      if (run >= MIN_REPEAT_LENGTH) {
+        position = putLiterals(source, literalStart, index, target, position);
+        target[position++] = (byte) (1 - run);
+        target[position++] = source[index];
+        index += run;
+        literalStart = index;
+      } else {
+        index += run;
+      }
+    }
+    return putLiterals(source, literalStart, toIndex, target, position) - targetOffset;
+  }
+
+  /**
+   * Encodes the remaining bytes of the source buffer into the target buffer, advancing both positions
+   *
+   * @param source the bytes to encode
+   * @param target the buffer to store the encoded bytes in, with at least {@link #maxEncodedLength(int)} bytes
+   *               remaining
+   * @throws BufferOverflowException if there is not enough space remaining in the target
+   */
+  public static void encode(final ByteBuffer source, final ByteBuffer target) {
+    int length = source.remaining();
+    if (target.remaining() < maxEncodedLength(length)) {
+      throw new BufferOverflowException();
+    }
+    if (source.hasArray() && target.hasArray()) {
+      int sourceFrom = source.arrayOffset() + source.position();
+      int count = encode(source.array(), sourceFrom, sourceFrom + length, target.array(),
+          target.arrayOffset() + target.position());
+      target.position(target.position() + count);
+    } else {
+      byte[] chunk = new byte[Math.min(length, 8192)];
+      byte[] encoded = new byte[maxEncodedLength(chunk.length)];
+      int remaining = length;
+      ByteBuffer input = source.duplicate();
+      while (remaining > 0) {
+        int chunkLength = Math.min(remaining, chunk.length);
+        input.get(chunk, 0, chunkLength);
+        target.put(encoded, 0, encode(chunk, 0, chunkLength, encoded, 0));
+        remaining -= chunkLength;
+      }
+    }
+    source.position(source.position() + length);
+  }
+
+  /**
+   * Decodes the array
+   *
+   * @param array the encoded bytes
+   * @return the decoded bytes
+   */
+  public static byte[] decode(final byte[] array) {
+    byte[] decoded = new byte[decodedLength(array, 0, array.length)];
+    decode(array, 0, array.length, decoded, 0);
+    return decoded;
+  }
+
+  /**
+   * Returns the length of the decoded data, without decoding it
+   *
+   * @param source    the encoded bytes
+   * @param fromIndex the index of the first encoded byte, inclusive
+   * @param toIndex   the index of the last encoded byte, exclusive
+   * @return the decoded length
+   */
+  public static int decodedLength(final byte[] source, final int fromIndex, final int toIndex) {
+    checkRange(source.length, fromIndex, toIndex);
+    long length = 0;
+    int index = fromIndex;
+    while (index < toIndex) {
+      int header = source[index++];
+      if (header >= 0) {
+        index += header + 1;
+        length += header + 1;
+      } else if (header != NO_OPERATION) {
+        index++;
+        length += 1 - header;
+      }
+    }
+    if (index > toIndex) {
+      throw new IllegalArgumentException("The encoded data ends within a packet");
+    }
+    if (length > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("The decoded data is too long for an array");
+    }
+    return (int) length;
+  }
+
+  /**
+   * Decodes the range of the source array into the target array
+   *
+   * @param source       the encoded bytes
+   * @param fromIndex    the index of the first encoded byte, inclusive
+   * @param toIndex      the index of the last encoded byte, exclusive
+   * @param target       the array to store the decoded bytes in
+   * @param targetOffset the index in the target of the first decoded byte
+   * @return the number of decoded bytes
+   */
+  public static int decode(final byte[] source, final int fromIndex, final int toIndex,
+                           final byte[] target, final int targetOffset) {
+    checkRange(source.length, fromIndex, toIndex);
+    checkRange(target.length, targetOffset, targetOffset);
+    int position = targetOffset;
+    int index = fromIndex;
+    while (index < toIndex) {
+      int header = source[index++];
+      if (header >= 0) {
+        int length = header + 1;
+        if (index + length > toIndex) {
+          throw new IllegalArgumentException("The encoded data ends within a literal packet");
+        }
+        checkRoom(target, position, length);
+        System.arraycopy(source, index, target, position, length);
+        index += length;
+        position += length;
+      } else if (header != NO_OPERATION) {
+        if (index == toIndex) {
+          throw new IllegalArgumentException("The encoded data ends within a repeat packet");
+        }
+        int length = 1 - header;
+        checkRoom(target, position, length);
+        Arrays.fill(target, position, position + length, source[index++]);
+        position += length;
+      }
+    }
+    return position - targetOffset;
+  }
+
+  /**
+   * Decodes complete packets from the source buffer into the target buffer, as long as they fit into the target
+   * <p>
+   * The positions of both buffers are advanced. Decoding stops at an incomplete packet at the end of the source or
+   * at a packet that does not fit into the target, which stays in the source. This allows decoding chunked input:
+   * compact the source, append the next chunk and decode again.
+   * </p>
+   *
+   * @param source the encoded bytes
+   * @param target the buffer to store the decoded bytes in
+   */
+  public static void decode(final ByteBuffer source, final ByteBuffer target) {
+    while (source.hasRemaining()) {
+      int start = source.position();
+      int header = source.get(start);
+      if (header >= 0) {
+        int length = header + 1;
+        if (source.remaining() < length + 1 || target.remaining() < length) {
+          return;
+        }
+        ByteBuffer literals = source.duplicate();
+        literals.position(start + 1).limit(start + 1 + length);
+        target.put(literals);
+        source.position(start + 1 + length);
+      } else if (header == NO_OPERATION) {
+        source.position(start + 1);
+      } else {
+        int length = 1 - header;
+        if (source.remaining() < 2 || target.remaining() < length) {
+          return;
+        }
+        byte value = source.get(start + 1);
+        for (int i = 0; i < length; i++) {
+          target.put(value);
+        }
+        source.position(start + 2);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of bytes starting at fromIndex that are equal to the byte at fromIndex
+   * <p>
+   * The first {@link #MIN_REPEAT_LENGTH} bytes are compared one at a time, so a literal position costs two byte
+   * comparisons. Only a confirmed run is scanned eight bytes at a time.
+   * </p>
+   *
+   * @param array     the array to scan
+   * @param fromIndex the index of the first byte of the run, inclusive
+   * @param toIndex   the index where to stop scanning, exclusive
+   * @return the length of the run, at least one
+   */
+  static int runLength(final byte[] array, final int fromIndex, final int toIndex) {
+    byte value = array[fromIndex];
+    int index = fromIndex + 1;
+    int repeatEnd = Math.min(toIndex, fromIndex + MIN_REPEAT_LENGTH);
+    while (index < repeatEnd && array[index] == value) {
+      index++;
+    }
+    if (index < fromIndex + MIN_REPEAT_LENGTH) {
+      return index - fromIndex;
+    }
+    long pattern = broadcast(value);
+    for (; index + WORD_LENGTH <= toIndex; index += WORD_LENGTH) {
+      long difference = getLong(array, index) ^ pattern;
+      if (difference != 0) {
+        return index + (Long.numberOfLeadingZeros(difference) >>> 3) - fromIndex;
+      }
+    }
+    while (index < toIndex && array[index] == value) {
+      index++;
+    }
+    return index - fromIndex;
+  }
+
+  private static int putLiterals(final byte[] source, final int fromIndex, final int toIndex,
+                                 final byte[] target, final int targetOffset) {
+    int position = targetOffset;
+    for (int index = fromIndex; index < toIndex; index += MAX_PACKET_LENGTH) {
+      int length = Math.min(MAX_PACKET_LENGTH, toIndex - index);
+      target[position++] = (byte) (length - 1);
+      System.arraycopy(source, index, target, position, length);
+      position += length;
+    }
+    return position;
+  }
+
+  private static void checkRoom(final byte[] target, final int position, final int length) {
+    if (target.length - position < length) {
+      throw new IllegalArgumentException("The decoded data does not fit into the target array");
+    }
+  }
+
+}
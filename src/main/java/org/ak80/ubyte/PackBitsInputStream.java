@@ -0,0 +1,180 @@
+package org.ak80.ubyte;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * An input stream that decodes run length encoded data in the PackBits format of {@link PackBits}
+ * <p>
+ * The encoded data is read through a bounded buffer, so memory stays constant independent of the size of the input.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public class PackBitsInputStream extends FilterInputStream {
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final int END_OF_STREAM = -1;
+
+  private final byte[] encoded = new byte[BUFFER_SIZE];
+  private int encodedPosition;
+  private int encodedLimit;
+
+  private final byte[] single = new byte[1];
+
+  private int literalsRemaining;
+  private int repeatsRemaining;
+  private byte repeatValue;
+
+  /**
+   * Creates a stream decoding the encoded data of the given stream
+   *
+   * @param in the stream to read the encoded data from
+   */
+  public PackBitsInputStream(final InputStream in) {
+    super(in);
+  }
+
+  @Override
+  public int read() throws IOException {
+    return read(single, 0, 1) == END_OF_STREAM ? END_OF_STREAM : Ubyte.toUnsignedByte(single[0]);
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    ByteAccess.checkOffsetCount(b.length, off, len);
+    if (len == 0) {
+      return 0;
+    }
+    return decode(b, off, len);
+  }
+
+  @Override
+  public long skip(final long n) throws IOException {
+    if (n <= 0) {
+      return 0;
+    }
+    long remaining = n;
+    while (remaining > 0) {
+      int count = decode(null, 0, (int) Math.min(remaining, Integer.MAX_VALUE));
+      if (count == END_OF_STREAM) {
+        break;
+      }
+      remaining -= count;
+    }
+    return n - Math.max(remaining, 0);
+  }
+
+  /**
+   * Decodes up to len bytes into b, or only counts them if b is null
+   */
+  private int decode(final byte[] b, final int off, final int len) throws IOException {
+    int position = off;
+    int end = off + len;
+    while (position < end) {
+      if (repeatsRemaining > 0) {
+        int count = Math.min(repeatsRemaining, end - position);
+        if (b != null) {
+          Arrays.fill(b, position, position + count, repeatValue);
+        }
+        position += count;
+        repeatsRemaining -= count;
+      } else if (literalsRemaining > 0) {
+        if (encodedPosition == encodedLimit) {
+          if (position > off) {
+            break;
+          }
+          if (!fillEncoded()) {
+            throw new EOFException("The encoded data ends within a literal packet");
+          }
+        }
+        int count = Math.min(literalsRemaining, Math.min(end - position, encodedLimit - encodedPosition));
+        if (b != null) {
+          System.arraycopy(encoded, encodedPosition, b, position, count);
+        }
+        encodedPosition += count;
+        position += count;
+        literalsRemaining -= count;
+      } else if (!readHeader(position > off)) {
+        break;
+      }
+    }
+    return position == off ? END_OF_STREAM : position - off;
+  }
+
+  /**
+   * Returns the number of decoded bytes that can be read without reading the underlying stream
+   *
+   * @return the number of bytes of the current packet that are already available
+   */
+  @Override
+  public int available() {
+    return repeatsRemaining + Math.min(literalsRemaining, encodedLimit - encodedPosition);
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  @Override
+  public synchronized void mark(final int readlimit) {
+    // not supported
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    throw new IOException("mark/reset not supported");
+  }
+
+  private boolean readHeader(final boolean avoidBlocking) throws IOException {
+    if (encodedPosition == encodedLimit && (avoidBlocking || !fillEncoded())) {
+      return false;
+    }
+    int header = encoded[encodedPosition++];
+    if (header >= 0) {
+      literalsRemaining = header + 1;
+    } else if (header != PackBits.NO_OPERATION) {
+      if (encodedPosition == encodedLimit && !fillEncoded()) {
+        throw new EOFException("The encoded data ends within a repeat packet");
+      }
+      repeatValue = encoded[encodedPosition++];
+      repeatsRemaining = 1 - header;
+    }
+    return true;
+  }
+
+  private boolean fillEncoded() throws IOException {
+    encodedPosition = 0;
+    encodedLimit = 0;
+    int count = in.read(encoded, 0, encoded.length);
+    while (count == 0) {
+      count = in.read(encoded, 0, encoded.length);
+    }
+    if (count == END_OF_STREAM) {
+      return false;
+    }
+    encodedLimit = count;
+    return true;
+  }
+
+}
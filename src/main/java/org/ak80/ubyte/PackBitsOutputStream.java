@@ -0,0 +1,171 @@
+package org.ak80.ubyte;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.ak80.ubyte.PackBits.MAX_PACKET_LENGTH;
+import static org.ak80.ubyte.PackBits.MIN_REPEAT_LENGTH;
+
+/**
+ * An output stream that run length encodes the bytes written to it in the PackBits format of {@link PackBits}
+ * <p>
+ * Runs are joined across writes, so the output is the same no matter how the input is split into chunks. Calling
+ * {@link #flush()} ends the current packet, so frequent flushing makes the output longer, but it is still valid
+ * PackBits data. The encoded data is written through a bounded buffer.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public class PackBitsOutputStream extends FilterOutputStream {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final byte[] literals = new byte[MAX_PACKET_LENGTH];
+  private int literalCount;
+
+  private byte runValue;
+  private int runLength;
+
+  private final byte[] encoded = new byte[BUFFER_SIZE];
+  private int encodedCount;
+
+  /**
+   * Creates a stream writing the encoded data to the given stream
+   *
+   * @param out the stream to write the encoded data to
+   */
+  public PackBitsOutputStream(final OutputStream out) {
+    super(out);
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    addRun((byte) b, 1);
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    ByteAccess.checkOffsetCount(b.length, off, len);
+    int index = off;
+    int end = off + len;
+    while (index < end) {
+      int run = PackBits.runLength(b, index, end);
+      addRun(b[index], run);
+      index += run;
+      int literalEnd = literalEnd(b, index, end);
+      addLiterals(b, index, literalEnd);
+      index = literalEnd;
+    }
+  }
+
+  /**
+   * Writes all pending packets and flushes the underlying stream
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public void flush() throws IOException {
+    endRun();
+    putLiterals();
+    out.write(encoded, 0, encodedCount);
+    encodedCount = 0;
+    out.flush();
+  }
+
+  private void addRun(final byte value, final int length) throws IOException {
+    int remaining = length;
+    if (runLength > 0 && runValue == value) {
+      remaining += runLength;
+    } else {
+      endRun();
+      runValue = value;
+    }
+    while (remaining > MAX_PACKET_LENGTH) {
+      runLength = MAX_PACKET_LENGTH;
+      endRun();
+      remaining -= MAX_PACKET_LENGTH;
+    }
+    runLength = remaining;
+  }
+
+  private static int literalEnd(final byte[] array, final int fromIndex, final int toIndex) {
+    int index = fromIndex;
+    while (index < toIndex) {
+      int run = PackBits.runLength(array, index, toIndex);
+      if (run >= MIN_REPEAT_LENGTH || index + run == toIndex) {
+        return index;
+      }
+      index += run;
+    }
+    return index;
+  }
+
+  private void addLiterals(final byte[] array, final int fromIndex, final int toIndex) throws IOException {
+    if (fromIndex == toIndex) {
+      return;
+    }
+    endRun();
+    int index = fromIndex;
+    while (index < toIndex) {
+      if (literalCount == MAX_PACKET_LENGTH) {
+        putLiterals();
+      }
+      int length = Math.min(MAX_PACKET_LENGTH - literalCount, toIndex - index);
+      System.arraycopy(array, index, literals, literalCount, length);
+      literalCount += length;
+      index += length;
+    }
+  }
+
+  private void endRun() throws IOException {
+    if (runLength >= MIN_REPEAT_LENGTH) {
+      putLiterals();
+      reserve(2);
+      encoded[encodedCount++] = (byte) (1 - runLength);
+      encoded[encodedCount++] = runValue;
+    } else {
+      for (int i = 0; i < runLength; i++) {
+        if (literalCount == MAX_PACKET_LENGTH) {
+          putLiterals();
+        }
+        literals[literalCount++] = runValue;
+      }
+    }
+    runLength = 0;
+  }
+
+  private void putLiterals() throws IOException {
+    if (literalCount > 0) {
+      reserve(literalCount + 1);
+      encoded[encodedCount++] = (byte) (literalCount - 1);
+      System.arraycopy(literals, 0, encoded, encodedCount, literalCount);
+      encodedCount += literalCount;
+      literalCount = 0;
+    }
+  }
+
+  private void reserve(final int length) throws IOException {
+    if (encoded.length - encodedCount < length) {
+      out.write(encoded, 0, encodedCount);
+      encodedCount = 0;
+    }
+  }
+
+}
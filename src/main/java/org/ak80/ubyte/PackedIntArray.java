@@ -0,0 +1,329 @@
+package org.ak80.ubyte;
+
+import static org.ak80.ubyte.ByteAccess.checkRange;
+
+/**
+ * A fixed size array of unsigned values with a fixed width from 1 to 64 bits, packed into a long array
+ * <p>
+ * Like {@link Ubyte#storeUnderMask(int, int, int)} and {@link Ubyte#getWithMask(int, int)} store small numbers
+ * in the bits of a byte, this array stores each value in exactly bitsPerValue bits, so values may span two longs.
+ * Value i is stored in the bits i * bitsPerValue to (i + 1) * bitsPerValue - 1, counting from the rightmost bit of
+ * the first long. Only the rightmost bitsPerValue bits of a value are stored.
+ * </p>
+ * <p>
+ * Bulk get and set move a cursor over the longs, which carries the bits of a value spanning two longs over to the next
+ * long, so each long is read or written once instead of once per value.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public final class PackedIntArray {
+
+  private static final int WORD_BITS = Long.SIZE;
+  private static final int WORD_SHIFT = 6;
+  private static final int WORD_MASK = WORD_BITS - 1;
+
+  private final long[] words;
+  private final int size;
+  private final int bitsPerValue;
+  private final long mask;
+
+  /**
+   * Creates an array of the given size with all values zero
+   *
+   * @param size         the number of values
+   * @param bitsPerValue the width of each value, from 1 to 64
+   */
+  public PackedIntArray(final int size, final int bitsPerValue) {
+    if (bitsPerValue < 1 || bitsPerValue > WORD_BITS) {
+      throw new IllegalArgumentException(String.format("A width of %s bits is not allowed, it must be in the range 1-64", bitsPerValue));
+    }
+    if (size < 0) {
+      throw new IllegalArgumentException(String.format("A size of %s is not allowed, it must not be negative", size));
+    }
+    long wordCount = ((long) size * bitsPerValue + WORD_MASK) >>> WORD_SHIFT;
+    if (wordCount > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException(String.format("%s values of %s bits do not fit into an array", size, bitsPerValue));
+    }
+    this.words = new long[(int) wordCount];
+    this.size = size;
+    this.bitsPerValue = bitsPerValue;
+    this.mask = bitsPerValue == WORD_BITS ? -1L : (1L << bitsPerValue) - 1;
+  }
+
+  /**
+   * Returns an array of the given size and width, with the values read from bytes created by {@link #toByteArray()}
+   *
+   * @param bytes        the packed values
+   * @param size         the number of values
+   * @param bitsPerValue the width of each value, from 1 to 64
+   * @return the array
+   */
+  public static PackedIntArray fromByteArray(final byte[] bytes, final int size, final int bitsPerValue) {
+    PackedIntArray array = new PackedIntArray(size, bitsPerValue);
+    int byteCount = array.byteCount();
+    if (bytes.length < byteCount) {
+      throw new IllegalArgumentException(String.format("%s bytes are needed for %s values of %s bits, but there are only %s",
+          byteCount, size, bitsPerValue, bytes.length));
+    }
+    long[] words = array.words;
+    for (int i = 0; i < byteCount; i++) {
+      words[i >>> 3] |= (bytes[i] & 0xffL) << ((i & 7) << 3);
+    }
+    if (words.length > 0) {
+      words[words.length - 1] &= lastWordMask(size, bitsPerValue);
+    }
+    return array;
+  }
+
+  /**
+   * Returns the number of values
+   *
+   * @return the size
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the width of each value
+   *
+   * @return the number of bits per value
+   */
+  public int bitsPerValue() {
+    return bitsPerValue;
+  }
+
+  /**
+   * Returns the value at the index
+   *
+   * @param index the index of the value
+   * @return the unsigned value
+   */
+  public long get(final int index) {
+    checkIndex(index);
+    return read((long) index * bitsPerValue);
+  }
+
+  /**
+   * Sets the value at the index
+   *
+   * @param index the index of the value
+   * @param value the value, only the rightmost bitsPerValue bits are used
+   */
+  public void set(final int index, final long value) {
+    checkIndex(index);
+    write((long) index * bitsPerValue, value);
+  }
+
+  /**
+   * Copies values starting at index into the target array
+   *
+   * @param index        the index of the first value
+   * @param target       the array to copy the values to
+   * @param targetOffset the index in the target of the first value
+   * @param length       the number of values to copy
+   */
+  public void get(final int index, final long[] target, final int targetOffset, final int length) {
+    checkRange(size, index, index + length);
+    checkRange(target.length, targetOffset, targetOffset + length);
+    Reader reader = new Reader(index);
+    for (int i = targetOffset; i < targetOffset + length; i++) {
+      target[i] = reader.next();
+    }
+  }
+
+  /**
+   * Copies values starting at index into the target array, values wider than 32 bits are truncated
+   *
+   * @param index        the index of the first value
+   * @param target       the array to copy the values to
+   * @param targetOffset the index in the target of the first value
+   * @param length       the number of values to copy
+   */
+  public void get(final int index, final int[] target, final int targetOffset, final int length) {
+    checkRange(size, index, index + length);
+    checkRange(target.length, targetOffset, targetOffset + length);
+    Reader reader = new Reader(index);
+    for (int i = targetOffset; i < targetOffset + length; i++) {
+      target[i] = (int) reader.next();
+    }
+  }
+
+  /**
+   * Sets values starting at index from the source array
+   *
+   * @param index        the index of the first value
+   * @param source       the array to copy the values from
+   * @param sourceOffset the index in the source of the first value
+   * @param length       the number of values to copy
+   */
+  public void set(final int index, final long[] source, final int sourceOffset, final int length) {
+    checkRange(size, index, index + length);
+    checkRange(source.length, sourceOffset, sourceOffset + length);
+    Writer writer = new Writer(index);
+    for (int i = sourceOffset; i < sourceOffset + length; i++) {
+      writer.next(source[i]);
+    }
+    writer.flush();
+  }
+
+  /**
+   * Sets values starting at index from the source array, the int values are treated as unsigned
+   *
+   * @param index        the index of the first value
+   * @param source       the array to copy the values from
+   * @param sourceOffset the index in the source of the first value
+   * @param length       the number of values to copy
+   */
+  public void set(final int index, final int[] source, final int sourceOffset, final int length) {
+    checkRange(size, index, index + length);
+    checkRange(source.length, sourceOffset, sourceOffset + length);
+    Writer writer = new Writer(index);
+    for (int i = sourceOffset; i < sourceOffset + length; i++) {
+      writer.next(Integer.toUnsignedLong(source[i]));
+    }
+    writer.flush();
+  }
+
+  /**
+   * Returns the packed values as bytes, the first byte holding the rightmost eight bits of the first long
+   * <p>
+   * The array has size * bitsPerValue / 8 bytes, rounded up. Use {@link #fromByteArray(byte[], int, int)} to
+   * create the array again
+   * </p>
+   *
+   * @return the packed values
+   */
+  public byte[] toByteArray() {
+    byte[] bytes = new byte[byteCount()];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+    }
+    return bytes;
+  }
+
+  private long read(final long bit) {
+    int wordIndex = (int) (bit >>> WORD_SHIFT);
+    int shift = (int) bit & WORD_MASK;
+    long value = words[wordIndex] >>> shift;
+    if (shift + bitsPerValue > WORD_BITS) {
+      value |= words[wordIndex + 1] << (WORD_BITS - shift);
+    }
+    return value & mask;
+  }
+
+  private void write(final long bit, final long value) {
+    int wordIndex = (int) (bit >>> WORD_SHIFT);
+    int shift = (int) bit & WORD_MASK;
+    long masked = value & mask;
+    words[wordIndex] = (words[wordIndex] & ~(mask << shift)) | (masked << shift);
+    if (shift + bitsPerValue > WORD_BITS) {
+      int storedBits = WORD_BITS - shift;
+      words[wordIndex + 1] = (words[wordIndex + 1] & ~(mask >>> storedBits)) | (masked >>> storedBits);
+    }
+  }
+
+  private int byteCount() {
+    return (int) (((long) size * bitsPerValue + 7) >>> 3);
+  }
+
+  private static long lastWordMask(final int size, final int bitsPerValue) {
+    int usedBits = (int) ((long) size * bitsPerValue) & WORD_MASK;
+    return usedBits == 0 ? -1L : lowBits(usedBits);
+  }
+
+  private static long lowBits(final int bits) {
+    return (1L << bits) - 1;
+  }
+
+  private void checkIndex(final int index) {
+    if (index < 0 || index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+  }
+
+  /**
+   * Reads consecutive values, loading each long once
+   */
+  private final class Reader {
+
+    private int wordIndex;
+    private int shift;
+    private long word;
+
+    Reader(final int index) {
+      long bit = (long) index * bitsPerValue;
+      wordIndex = (int) (bit >>> WORD_SHIFT);
+      shift = (int) bit & WORD_MASK;
+      word = wordIndex < words.length ? words[wordIndex] : 0;
+    }
+
+    long next() {
+      long value = word >>> shift;
+      shift += bitsPerValue;
+      if (shift >= WORD_BITS) {
+        shift -= WORD_BITS;
+        wordIndex++;
+        word = wordIndex < words.length ? words[wordIndex] : 0;
+        if (shift > 0) {
+          value |= word << (bitsPerValue - shift);
+        }
+      }
+      return value & mask;
+    }
+
+  }
+
+  /**
+   * Writes consecutive values, collecting them in a long and storing each long once
+   */
+  private final class Writer {
+
+    private int wordIndex;
+    private int shift;
+    private long word;
+
+    Writer(final int index) {
+      long bit = (long) index * bitsPerValue;
+      wordIndex = (int) (bit >>> WORD_SHIFT);
+      shift = (int) bit & WORD_MASK;
+      word = shift == 0 ? 0 : words[wordIndex] & lowBits(shift);
+    }
+
+    void next(final long value) {
+      long masked = value & mask;
+      word |= masked << shift;
+      shift += bitsPerValue;
+      if (shift >= WORD_BITS) {
+        words[wordIndex++] = word;
+        shift -= WORD_BITS;
+        word = shift == 0 ? 0 : masked >>> (bitsPerValue - shift);
+      }
+    }
+
+    void flush() {
+      if (shift > 0) {
+        words[wordIndex] = word | (words[wordIndex] & ~lowBits(shift));
+      }
+    }
+
+  }
+
+}
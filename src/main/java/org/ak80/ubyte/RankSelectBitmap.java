@@ -0,0 +1,269 @@
+package org.ak80.ubyte;
+
+/**
+ * An immutable bitmap answering rank and select queries
+ * <p>
+ * Position p is bit p % 64 of long p / 64, counting from the rightmost bit, so bit i of byte j is position 8 * j + i,
+ * like the numbering of {@link Bits}. Rank counts the set bits before a position, select finds the position of the
+ * set bit with a given rank.
+ * </p>
+ * <p>
+ * Rank is answered in constant time from a directory holding the number of set bits before every 4096 bits as a long
+ * and before every 512 bits, relative to that, as a char, i.e. about 4.7% of the bitmap.
+ * </p>
+ * <p>
+ * Select is answered in constant time as well. The set bits are split into intervals of 1024, and the block of the
+ * first set bit of each interval is sampled in 32 bits. An interval spanning more than 2^18 positions is sparse and
+ * stores the positions of its 1024 set bits as longs, at most 25% of the positions it spans. For any other interval
+ * select does a binary search over the at most 512 blocks it spans, and then counts set bits in at most eight longs.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public final class RankSelectBitmap {
+
+  private static final int WORD_SHIFT = 6;
+  private static final int WORD_MASK = Long.SIZE - 1;
+  private static final int BLOCK_SHIFT = 3;
+  private static final int BLOCK_WORDS = 1 << BLOCK_SHIFT;
+  private static final int SUPERBLOCK_SHIFT = 6;
+  private static final int SELECT_SHIFT = 10;
+  private static final int SELECT_MASK = (1 << SELECT_SHIFT) - 1;
+  private static final long SPARSE_SPAN = 1L << 18;
+
+  private final long[] words;
+  private final long length;
+  private final long cardinality;
+  private final long[] superblockRanks;
+  private final char[] blockRanks;
+  private final int[] selectSamples;
+  private final long[][] sparsePositions;
+
+  private RankSelectBitmap(final long[] words, final long length) {
+    this.words = words;
+    this.length = length;
+    int blockCount = (words.length + BLOCK_WORDS - 1) >>> BLOCK_SHIFT;
+    this.blockRanks = new char[blockCount];
+    this.superblockRanks = new long[(words.length + (1 << SUPERBLOCK_SHIFT) - 1) >>> SUPERBLOCK_SHIFT];
+    long total = 0;
+    for (int word = 0; word < words.length; word += BLOCK_WORDS) {
+      if ((word & ((1 << SUPERBLOCK_SHIFT) - 1)) == 0) {
+        superblockRanks[word >>> SUPERBLOCK_SHIFT] = total;
+      }
+      blockRanks[word >>> BLOCK_SHIFT] = (char) (total - superblockRanks[word >>> SUPERBLOCK_SHIFT]);
+      for (int i = word; i < Math.min(words.length, word + BLOCK_WORDS); i++) {
+        total += Long.bitCount(words[i]);
+      }
+    }
+    this.cardinality = total;
+
+    int[] samples = new int[(int) ((cardinality + (1 << SELECT_SHIFT) - 1) >>> SELECT_SHIFT)];
+    long nextSample = 0;
+    long counted = 0;
+    for (int word = 0; word < words.length && counted < cardinality; word++) {
+      counted += Long.bitCount(words[word]);
+      if (counted > nextSample) {
+        samples[(int) (nextSample >>> SELECT_SHIFT)] = word >>> BLOCK_SHIFT;
+        nextSample += 1 << SELECT_SHIFT;
+      }
+    }
+    this.selectSamples = samples;
+
+    this.sparsePositions = new long[samples.length][];
+    for (int sample = 0; sample < samples.length; sample++) {
+      long firstRank = (long) sample << SELECT_SHIFT;
+      long lastRank = Math.min(firstRank + SELECT_MASK, cardinality - 1);
+      long first = selectInBlocks(firstRank);
+      if (selectInBlocks(lastRank) - first > SPARSE_SPAN) {
+        sparsePositions[sample] = positions(first, (int) (lastRank - firstRank + 1));
+      }
+    }
+  }
+
+  /**
+   * Returns a bitmap of the bits in the array, the array is copied
+   *
+   * @param words the bits, position p is bit p % 64 of long p / 64
+   * @return the bitmap
+   */
+  public static RankSelectBitmap of(final long[] words) {
+    return new RankSelectBitmap(words.clone(), (long) words.length << WORD_SHIFT);
+  }
+
+  /**
+   * Returns a bitmap of the bits in the array
+   *
+   * @param bytes the bits, position p is bit p % 8 of byte p / 8
+   * @return the bitmap, with a length of eight times the number of bytes
+   */
+  public static RankSelectBitmap of(final byte[] bytes) {
+    long[] words = new long[(bytes.length + 7) >>> 3];
+    for (int i = 0; i < bytes.length; i++) {
+      words[i >>> 3] |= (bytes[i] & 0xffL) << ((i & 7) << 3);
+    }
+    return new RankSelectBitmap(words, (long) bytes.length * Byte.SIZE);
+  }
+
+  /**
+   * Returns the number of positions
+   *
+   * @return the number of bits in the bitmap
+   */
+  public long length() {
+    return length;
+  }
+
+  /**
+   * Returns the number of set bits
+   *
+   * @return the number of set bits in the bitmap
+   */
+  public long cardinality() {
+    return cardinality;
+  }
+
+  /**
+   * Returns true if the bit at the position is set
+   *
+   * @param position the position of the bit
+   * @return true if the bit is set
+   */
+  public boolean get(final long position) {
+    checkPosition(position, length - 1);
+    return (words[(int) (position >>> WORD_SHIFT)] & (1L << position)) != 0;
+  }
+
+  /**
+   * Returns the number of set bits before the position
+   *
+   * @param position the position, from 0 to {@link #length()}, inclusive
+   * @return the number of set bits in positions 0 to position - 1
+   */
+  public long rank1(final long position) {
+    checkPosition(position, length);
+    if (position == length) {
+      return cardinality;
+    }
+    int word = (int) (position >>> WORD_SHIFT);
+    int block = word >>> BLOCK_SHIFT;
+    long rank = superblockRanks[word >>> SUPERBLOCK_SHIFT] + blockRanks[block];
+    for (int i = block << BLOCK_SHIFT; i < word; i++) {
+      rank += Long.bitCount(words[i]);
+    }
+    return rank + Long.bitCount(words[word] & ((1L << (position & WORD_MASK)) - 1));
+  }
+
+  /**
+   * Returns the number of cleared bits before the position
+   *
+   * @param position the position, from 0 to {@link #length()}, inclusive
+   * @return the number of cleared bits in positions 0 to position - 1
+   */
+  public long rank0(final long position) {
+    return position - rank1(position);
+  }
+
+  /**
+   * Returns the position of the set bit with the given rank, i.e. select1(rank1(p)) is p for each set bit p
+   *
+   * @param rank the number of set bits before the bit to find, from 0 to {@link #cardinality()} - 1
+   * @return the position of the set bit
+   */
+  public long select1(final long rank) {
+    checkPosition(rank, cardinality - 1);
+    long[] positions = sparsePositions[(int) (rank >>> SELECT_SHIFT)];
+    if (positions != null) {
+      return positions[(int) rank & SELECT_MASK];
+    }
+    return selectInBlocks(rank);
+  }
+
+  /**
+   * Returns the bits of the bitmap
+   *
+   * @return a copy of the bits, position p is bit p % 64 of long p / 64
+   */
+  public long[] toLongArray() {
+    return words.clone();
+  }
+
+  private long selectInBlocks(final long rank) {
+    int sample = (int) (rank >>> SELECT_SHIFT);
+    int low = selectSamples[sample];
+    int high = sample + 1 < selectSamples.length ? selectSamples[sample + 1] : blockRanks.length - 1;
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+      if (blockRank(middle) <= rank) {
+        low = middle;
+      } else {
+        high = middle - 1;
+      }
+    }
+    long remaining = rank - blockRank(low);
+    int word = low << BLOCK_SHIFT;
+    int count = Long.bitCount(words[word]);
+    while (remaining >= count) {
+      remaining -= count;
+      word++;
+      count = Long.bitCount(words[word]);
+    }
+    return ((long) word << WORD_SHIFT) + selectInWord(words[word], (int) remaining);
+  }
+
+  private long[] positions(final long first, final int count) {
+    long[] positions = new long[count];
+    int word = (int) (first >>> WORD_SHIFT);
+    long bits = words[word] & (-1L << first);
+    for (int i = 0; i < count; i++) {
+      while (bits == 0) {
+        bits = words[++word];
+      }
+      positions[i] = ((long) word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+      bits &= bits - 1;
+    }
+    return positions;
+  }
+
+  private long blockRank(final int block) {
+    return superblockRanks[block >>> (SUPERBLOCK_SHIFT - BLOCK_SHIFT)] + blockRanks[block];
+  }
+
+  private static int selectInWord(final long word, final int rank) {
+    int remaining = rank;
+    int shift = 0;
+    int count = Long.bitCount(word & 0xff);
+    while (remaining >= count) {
+      remaining -= count;
+      shift += 8;
+      count = Long.bitCount((word >>> shift) & 0xff);
+    }
+    long bits = word >>> shift;
+    for (; remaining > 0; remaining--) {
+      bits &= bits - 1;
+    }
+    return shift + Long.numberOfTrailingZeros(bits);
+  }
+
+  private static void checkPosition(final long position, final long maxPosition) {
+    if (position < 0 || position > maxPosition) {
+      throw new IndexOutOfBoundsException(String.format("%s is out of range 0-%s", position, maxPosition));
+    }
+  }
+
+}
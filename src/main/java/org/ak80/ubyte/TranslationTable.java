@@ -0,0 +1,260 @@
+package org.ak80.ubyte;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.function.IntUnaryOperator;
+
+import static org.ak80.ubyte.ByteAccess.WORD_LENGTH;
+import static org.ak80.ubyte.ByteAccess.checkRange;
+
+/**
+ * A table that maps each unsigned byte value to another unsigned byte value, for translating bytes in bulk
+ * <p>
+ * Tables are immutable and can be reused. Translating an array or buffer costs one table lookup per byte, which is
+ * much faster than composing {@link Ubyte#getWithMask(int, int)} and {@link Ubyte#storeUnderMask(int, int, int)}
+ * for each byte. Tables for bit reversal, nibble swap and complement are provided, and tables can be composed
+ * with {@link #andThen(TranslationTable)}.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public final class TranslationTable {
+
+  private static final int VALUES = 256;
+  private static final int HIGHEST_BIT = 7;
+
+  /**
+   * Maps each value to itself
+   */
+  public static final TranslationTable IDENTITY = of(value -> value);
+
+  /**
+   * Reverses the order of the bits, i.e. {@link Bits#BIT_0} becomes {@link Bits#BIT_7} and so on
+   */
+  public static final TranslationTable BIT_REVERSAL = of(TranslationTable::reverseBits);
+
+  /**
+   * Swaps the four high bits with the four low bits
+   */
+  public static final TranslationTable NIBBLE_SWAP = of(value -> (value << 4) | (value >>> 4));
+
+  /**
+   * Inverts all bits
+   */
+  public static final TranslationTable COMPLEMENT = of(value -> ~value);
+
+  private final byte[] table;
+
+  private TranslationTable(final byte[] table) {
+    this.table = table;
+  }
+
+  /**
+   * Returns a table with the given mapping
+   *
+   * @param unsignedByteArray the 256 unsigned byte values to map the values 0 to 255 to
+   * @return the table
+   */
+  public static TranslationTable of(final int[] unsignedByteArray) {
+    if (unsignedByteArray.length != VALUES || !Ubyte.isUnsignedByteArray(unsignedByteArray)) {
+      throw new IllegalArgumentException("The table must contain exactly 256 unsigned byte values");
+    }
+    return new TranslationTable(Ubyte.toSignedByteArray(unsignedByteArray));
+  }
+
+  /**
+   * Returns a table that maps each unsigned byte value with the given function
+   * <p>
+   * Only the rightmost byte of the function result is used
+   * </p>
+   *
+   * @param mapping the function to calculate the table with
+   * @return the table
+   */
+  public static TranslationTable of(final IntUnaryOperator mapping) {
+    byte[] table = new byte[VALUES];
+    for (int value = 0; value < VALUES; value++) {
+      table[value] = Ubyte.toSignedByte(mapping.applyAsInt(value));
+    }
+    return new TranslationTable(table);
+  }
+
+  /**
+   * Returns a table that first translates with this table and then with the given table
+   *
+   * @param after the table to apply to the result of this table
+   * @return the composed table
+   */
+  public TranslationTable andThen(final TranslationTable after) {
+    byte[] composed = new byte[VALUES];
+    for (int value = 0; value < VALUES; value++) {
+      composed[value] = after.table[table[value] & 0xff];
+    }
+    return new TranslationTable(composed);
+  }
+
+  /**
+   * Translates a single unsigned byte value
+   *
+   * @param value the unsigned byte, only the rightmost byte is used
+   * @return the translated unsigned byte
+   */
+  public int translate(final int value) {
+    return Ubyte.toUnsignedByte(table[Ubyte.toUnsignedByte(value)]);
+  }
+
+  /**
+   * Translates all bytes of the array in place
+   *
+   * @param array the array to translate
+   */
+  public void translate(final byte[] array) {
+    translate(array, 0, array.length);
+  }
+
+  /**
+   * Translates the bytes in the range of the array in place
+   *
+   * @param array     the array to translate
+   * @param fromIndex the index of the first byte to translate, inclusive
+   * @param toIndex   the index of the last byte to translate, exclusive
+   */
+  public void translate(final byte[] array, final int fromIndex, final int toIndex) {
+    translate(array, fromIndex, toIndex, array, fromIndex);
+  }
+
+  /**
+   * Translates the bytes in the range of the source array into the target array
+   * <p>
+   * Source and target may be the same array, also with overlapping ranges
+   * </p>
+   *
+   * @param source      the array to translate
+   * @param fromIndex   the index of the first byte to translate, inclusive
+   * @param toIndex     the index of the last byte to translate, exclusive
+   * @param target      the array to store the translated bytes in
+   * @param targetIndex the index in the target of the first translated byte
+   */
+  public void translate(final byte[] source, final int fromIndex, final int toIndex,
+                        final byte[] target, final int targetIndex) {
+    checkRange(source.length, fromIndex, toIndex);
+    checkRange(target.length, targetIndex, targetIndex + toIndex - fromIndex);
+    byte[] lookup = table;
+    int offset = targetIndex - fromIndex;
+    if (source == target && offset > 0) {
+      for (int index = toIndex - 1; index >= fromIndex; index--) {
+        target[index + offset] = lookup[source[index] & 0xff];
+      }
+    } else {
+      for (int index = fromIndex; index < toIndex; index++) {
+        target[index + offset] = lookup[source[index] & 0xff];
+      }
+    }
+  }
+
+  /**
+   * Translates the bytes between position and limit of the buffer in place, without changing the position
+   *
+   * @param buffer the buffer to translate
+   */
+  public void translate(final ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      int offset = buffer.arrayOffset();
+      translate(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+      return;
+    }
+    int index = buffer.position();
+    int limit = buffer.limit();
+    for (; index + WORD_LENGTH <= limit; index += WORD_LENGTH) {
+      buffer.putLong(index, translateWord(buffer.getLong(index)));
+    }
+    for (; index < limit; index++) {
+      buffer.put(index, table[buffer.get(index) & 0xff]);
+    }
+  }
+
+  /**
+   * Translates the remaining bytes of the source buffer into the target buffer
+   * <p>
+   * Like {@link ByteBuffer#put(ByteBuffer)} the positions of both buffers are advanced by the number of bytes
+   * translated, and the source must not be the target. Use {@link #translate(ByteBuffer)} to translate a buffer in
+   * place. Heap buffers sharing an array may overlap, direct buffers sharing memory must not.
+   * </p>
+   *
+   * @param source the buffer to translate
+   * @param target the buffer to store the translated bytes in
+   * @throws IllegalArgumentException if the source is the target
+   * @throws BufferOverflowException  if there is not enough space remaining in the target
+   */
+  public void translate(final ByteBuffer source, final ByteBuffer target) {
+    if (source == target) {
+      throw new IllegalArgumentException("The source buffer must not be the target buffer");
+    }
+    int length = source.remaining();
+    if (target.remaining() < length) {
+      throw new BufferOverflowException();
+    }
+    if (source.hasArray() && target.hasArray()) {
+      translate(source.array(), source.arrayOffset() + source.position(), source.arrayOffset() + source.limit(),
+          target.array(), target.arrayOffset() + target.position());
+    } else {
+      int sourceIndex = source.position();
+      int targetIndex = target.position();
+      int sourceLimit = source.limit();
+      if (source.order() == target.order()) {
+        for (; sourceIndex + WORD_LENGTH <= sourceLimit; sourceIndex += WORD_LENGTH) {
+          target.putLong(targetIndex, translateWord(source.getLong(sourceIndex)));
+          targetIndex += WORD_LENGTH;
+        }
+      }
+      for (; sourceIndex < sourceLimit; sourceIndex++, targetIndex++) {
+        target.put(targetIndex, table[source.get(sourceIndex) & 0xff]);
+      }
+    }
+    source.position(source.position() + length);
+    target.position(target.position() + length);
+  }
+
+  /**
+   * Returns the table as array of unsigned bytes
+   *
+   * @return the 256 unsigned byte values the values 0 to 255 are mapped to
+   */
+  public int[] toArray() {
+    return Ubyte.toUnsignedByteArray(table);
+  }
+
+  private long translateWord(final long word) {
+    byte[] lookup = table;
+    long translated = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+      translated |= (lookup[(int) (word >>> shift) & 0xff] & 0xffL) << shift;
+    }
+    return translated;
+  }
+
+  private static int reverseBits(final int value) {
+    int reversed = 0;
+    for (Bits bit : Bits.values()) {
+      reversed = Ubyte.setFlag(reversed, Bits.getBit(HIGHEST_BIT - bit.ordinal()), Ubyte.bitIsSet(value, bit));
+    }
+    return reversed;
+  }
+
+}
@@ -1,7 +1,11 @@
 package org.ak80.ubyte;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
+import static org.ak80.ubyte.ByteAccess.WORD_LENGTH;
+import static org.ak80.ubyte.ByteAccess.broadcast;
+
 /**
  * Provides utilities for working with unsigned byte values
  * <p>
@@ -51,6 +55,10 @@ public final class Ubyte {
   private static final String ARRAY_START = "{ ";
   private static final String ARRAY_END = " }";
   private static final String ARRAY_SEPARATOR = ", ";
+  private static final String EMPTY_ARRAY = "{ }";
+
+  private static final long HIGH_BYTES_OF_TWO_INTS = 0xffffff00ffffff00L;
+  private static final int HIGH_BYTES_OF_INT = 0xffffff00;
 
   private Ubyte() {
     // hide
@@ -311,6 +319,38 @@ public final class Ubyte {
     return target;
   }
 
+  /**
+   * Masks the remaining bytes of the buffer in place, replacing each byte with the result of
+   * {@link #getWithMask(int, int)}
+   * <p>
+   * The buffer is modified, its position and limit are not changed. Direct buffers are processed eight bytes at a
+   * time
+   * </p>
+   *
+   * @param buffer the buffer with the source values, which are replaced
+   * @param mask   the mask to use, only the rightmost byte is used
+   * @throws java.nio.ReadOnlyBufferException if the buffer is read-only
+   */
+  public static void maskInPlace(final ByteBuffer buffer, final int mask) {
+    int index = buffer.position();
+    int limit = buffer.limit();
+    if (buffer.hasArray()) {
+      byte[] array = buffer.array();
+      byte byteMask = (byte) mask;
+      for (int i = buffer.arrayOffset() + index; i < buffer.arrayOffset() + limit; i++) {
+        array[i] &= byteMask;
+      }
+      return;
+    }
+    long wordMask = broadcast(mask);
+    for (; index + WORD_LENGTH <= limit; index += WORD_LENGTH) {
+      buffer.putLong(index, buffer.getLong(index) & wordMask);
+    }
+    for (; index < limit; index++) {
+      buffer.put(index, (byte) (buffer.get(index) & mask));
+    }
+  }
+
   /**
    * Returns true if each int int the the given array int would be a valid unsigned byte
    * <p>
@@ -329,6 +369,31 @@ public final class Ubyte {
     return true;
   }
 
+  /**
+   * Returns true if each int in the remaining bytes of the buffer would be a valid unsigned byte
+   * <p>
+   * The remaining bytes are read as ints in the byte order of the buffer, eight bytes at a time. The position and
+   * limit of the buffer are not changed
+   * </p>
+   *
+   * @param buffer the buffer holding the ints to test, the number of remaining bytes must be a multiple of four
+   * @return true if each int is an unsigned byte, otherwise false
+   */
+  public static boolean isUnsignedByteArray(final ByteBuffer buffer) {
+    if (buffer.remaining() % Integer.BYTES != 0) {
+      throw new IllegalArgumentException(String.format("%s remaining bytes are not allowed, they must be a multiple of 4",
+          buffer.remaining()));
+    }
+    int index = buffer.position();
+    int limit = buffer.limit();
+    for (; index + WORD_LENGTH <= limit; index += WORD_LENGTH) {
+      if ((buffer.getLong(index) & HIGH_BYTES_OF_TWO_INTS) != 0) {
+        return false;
+      }
+    }
+    return index == limit || (buffer.getInt(index) & HIGH_BYTES_OF_INT) == 0;
+  }
+
   /**
    * Converts the given array of int values to an array of signed byte values, using @link{#toSignedByte(int)}
    * for each value
@@ -360,6 +425,40 @@ public final class Ubyte {
     return intArray;
   }
 
+  /**
+   * Converts the remaining bytes of the buffer to an array of unsigned byte values, using @link{#toUnsignedByte(int)}
+   * for each value
+   * <p>
+   * The position and limit of the buffer are not changed. Direct buffers are read eight bytes at a time
+   * </p>
+   *
+   * @param buffer the buffer to convert
+   * @return the int array with the converted values
+   */
+  public static int[] toUnsignedByteArray(final ByteBuffer buffer) {
+    int[] intArray = new int[buffer.remaining()];
+    int index = buffer.position();
+    if (buffer.hasArray()) {
+      byte[] array = buffer.array();
+      int offset = buffer.arrayOffset() + index;
+      for (int i = 0; i < intArray.length; i++) {
+        intArray[i] = toUnsignedByte(array[offset + i]);
+      }
+      return intArray;
+    }
+    int pos = 0;
+    for (; pos + WORD_LENGTH <= intArray.length; pos += WORD_LENGTH) {
+      long word = ByteAccess.getLong(buffer, index + pos);
+      for (int i = 0; i < WORD_LENGTH; i++) {
+        intArray[pos + i] = (int) (word >>> (56 - i * BYTE_LENGTH)) & BYTE_MASK;
+      }
+    }
+    for (; pos < intArray.length; pos++) {
+      intArray[pos] = toUnsignedByte(buffer.get(index + pos));
+    }
+    return intArray;
+  }
+
 
   /**
    * Returns a hexadecimal representation of an array of int, for which each int is assumed to be an unsigned byte value
@@ -391,6 +490,40 @@ public final class Ubyte {
     return string.toString();
   }
 
+  /**
+   * Returns a hexadecimal representation of the remaining bytes of the buffer, each treated as unsigned byte
+   * <p>
+   * The format is the same as with {@link #formatUnsignedByteArray(int[])}. The position and limit of the buffer
+   * are not changed
+   * </p>
+   *
+   * @param buffer the buffer holding the bytes
+   * @return the formatted hex string
+   */
+  public static String formatUnsignedByteArray(final ByteBuffer buffer) {
+    int length = buffer.remaining();
+    if (length == 0) {
+      return EMPTY_ARRAY;
+    }
+    char[] chars = new char[ARRAY_START.length() + 4 * length + ARRAY_SEPARATOR.length() * (length - 1)
+        + ARRAY_END.length()];
+    ARRAY_START.getChars(0, ARRAY_START.length(), chars, 0);
+    int pos = ARRAY_START.length();
+    for (int index = buffer.position(); index < buffer.limit(); index++) {
+      if (index > buffer.position()) {
+        ARRAY_SEPARATOR.getChars(0, ARRAY_SEPARATOR.length(), chars, pos);
+        pos += ARRAY_SEPARATOR.length();
+      }
+      int value = buffer.get(index);
+      chars[pos++] = '0';
+      chars[pos++] = 'x';
+      chars[pos++] = HexDigits.toDigit(value >>> 4);
+      chars[pos++] = HexDigits.toDigit(value);
+    }
+    ARRAY_END.getChars(0, ARRAY_END.length(), chars, pos);
+    return new String(chars);
+  }
+
   /**
    * Returns an array of unsigned bytes stored in ints, created from a string representation of an array of unsigned
    * byte values
@@ -433,4 +566,33 @@ public final class Ubyte {
     return new String(byteArray, Charset.forName("ISO-8859-1"));
   }
 
+  /**
+   * Convert the remaining bytes of the buffer to a string in "ISO-8859-1" encoding
+   * <p>
+   * The position and limit of the buffer are not changed. Direct buffers are read eight bytes at a time, without
+   * copying them into an array first
+   * </p>
+   *
+   * @param buffer the buffer to convert
+   * @return the string
+   */
+  public static String toIso88591String(final ByteBuffer buffer) {
+    int index = buffer.position();
+    if (buffer.hasArray()) {
+      return new String(buffer.array(), buffer.arrayOffset() + index, buffer.remaining(), Charset.forName("ISO-8859-1"));
+    }
+    char[] chars = new char[buffer.remaining()];
+    int pos = 0;
+    for (; pos + WORD_LENGTH <= chars.length; pos += WORD_LENGTH) {
+      long word = ByteAccess.getLong(buffer, index + pos);
+      for (int i = 0; i < WORD_LENGTH; i++) {
+        chars[pos + i] = (char) ((word >>> (56 - i * BYTE_LENGTH)) & BYTE_MASK);
+      }
+    }
+    for (; pos < chars.length; pos++) {
+      chars[pos] = (char) toUnsignedByte(buffer.get(index + pos));
+    }
+    return new String(chars);
+  }
+
 }
@@ -0,0 +1,171 @@
+package org.ak80.ubyte;
+
+import java.util.Comparator;
+
+import static org.ak80.ubyte.ByteAccess.WORD_LENGTH;
+import static org.ak80.ubyte.ByteAccess.checkRange;
+import static org.ak80.ubyte.ByteAccess.getLong;
+
+/**
+ * Provides comparison of byte arrays, treating each byte as an unsigned byte value
+ * <p>
+ * The arrays are compared lexicographically in unsigned byte order, i.e. the same order as comparing the values of
+ * {@link Ubyte#toUnsignedByteArray(byte[])} element by element. Eight bytes are compared at a time, by reading them
+ * as big endian long and comparing with {@link Long#compareUnsigned(long, long)}.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public final class UnsignedByteArrays {
+
+  private static final int NO_MISMATCH = -1;
+
+  private static final Comparator<byte[]> COMPARATOR = UnsignedByteArrays::compareUnsigned;
+
+  private UnsignedByteArrays() {
+    // hide
+  }
+
+  /**
+   * Returns a comparator that orders byte arrays lexicographically in unsigned byte order
+   * <p>
+   * A shorter array that is a prefix of a longer array is ordered first
+   * </p>
+   *
+   * @return the comparator
+   */
+  public static Comparator<byte[]> comparator() {
+    return COMPARATOR;
+  }
+
+  /**
+   * Compares two byte arrays lexicographically in unsigned byte order
+   *
+   * @param left  the first array
+   * @param right the second array
+   * @return a negative value, zero or a positive value if the first array is less than, equal to or greater than
+   * the second array
+   */
+  public static int compareUnsigned(final byte[] left, final byte[] right) {
+    return compareUnsigned(left, 0, left.length, right, 0, right.length);
+  }
+
+  /**
+   * Compares two byte array ranges lexicographically in unsigned byte order
+   *
+   * @param left           the first array
+   * @param leftFromIndex  the index of the first byte in the first array, inclusive
+   * @param leftToIndex    the index of the last byte in the first array, exclusive
+   * @param right          the second array
+   * @param rightFromIndex the index of the first byte in the second array, inclusive
+   * @param rightToIndex   the index of the last byte in the second array, exclusive
+   * @return a negative value, zero or a positive value if the first range is less than, equal to or greater than
+   * the second range
+   */
+  public static int compareUnsigned(final byte[] left, final int leftFromIndex, final int leftToIndex,
+                                    final byte[] right, final int rightFromIndex, final int rightToIndex) {
+    checkRange(left.length, leftFromIndex, leftToIndex);
+    checkRange(right.length, rightFromIndex, rightToIndex);
+    int leftLength = leftToIndex - leftFromIndex;
+    int rightLength = rightToIndex - rightFromIndex;
+    int length = Math.min(leftLength, rightLength);
+    int offset = 0;
+    for (; offset + WORD_LENGTH <= length; offset += WORD_LENGTH) {
+      long leftWord = getLong(left, leftFromIndex + offset);
+      long rightWord = getLong(right, rightFromIndex + offset);
+      if (leftWord != rightWord) {
+        return Long.compareUnsigned(leftWord, rightWord);
+      }
+    }
+    for (; offset < length; offset++) {
+      int leftByte = left[leftFromIndex + offset] & 0xff;
+      int rightByte = right[rightFromIndex + offset] & 0xff;
+      if (leftByte != rightByte) {
+        return leftByte - rightByte;
+      }
+    }
+    return leftLength - rightLength;
+  }
+
+  /**
+   * Returns the index of the first byte that differs in the two byte arrays
+   *
+   * @param left  the first array
+   * @param right the second array
+   * @return the index of the first mismatch, the length of the shorter array if it is a prefix of the other array,
+   * or -1 if the arrays are equal
+   */
+  public static int mismatch(final byte[] left, final byte[] right) {
+    return mismatch(left, 0, left.length, right, 0, right.length);
+  }
+
+  /**
+   * Returns the relative index of the first byte that differs in the two byte array ranges
+   *
+   * @param left           the first array
+   * @param leftFromIndex  the index of the first byte in the first array, inclusive
+   * @param leftToIndex    the index of the last byte in the first array, exclusive
+   * @param right          the second array
+   * @param rightFromIndex the index of the first byte in the second array, inclusive
+   * @param rightToIndex   the index of the last byte in the second array, exclusive
+   * @return the index of the first mismatch relative to the start of the ranges, the length of the shorter range if
+   * it is a prefix of the other range, or -1 if the ranges are equal
+   */
+  public static int mismatch(final byte[] left, final int leftFromIndex, final int leftToIndex,
+                             final byte[] right, final int rightFromIndex, final int rightToIndex) {
+    checkRange(left.length, leftFromIndex, leftToIndex);
+    checkRange(right.length, rightFromIndex, rightToIndex);
+    int leftLength = leftToIndex - leftFromIndex;
+    int rightLength = rightToIndex - rightFromIndex;
+    int length = Math.min(leftLength, rightLength);
+    int offset = 0;
+    for (; offset + WORD_LENGTH <= length; offset += WORD_LENGTH) {
+      long difference = getLong(left, leftFromIndex + offset) ^ getLong(right, rightFromIndex + offset);
+      if (difference != 0) {
+        return offset + (Long.numberOfLeadingZeros(difference) >>> 3);
+      }
+    }
+    for (; offset < length; offset++) {
+      if (left[leftFromIndex + offset] != right[rightFromIndex + offset]) {
+        return offset;
+      }
+    }
+    return leftLength == rightLength ? NO_MISMATCH : length;
+  }
+
+  /**
+   * Returns true if the two byte array ranges have the same length and contain the same bytes
+   *
+   * @param left           the first array
+   * @param leftFromIndex  the index of the first byte in the first array, inclusive
+   * @param leftToIndex    the index of the last byte in the first array, exclusive
+   * @param right          the second array
+   * @param rightFromIndex the index of the first byte in the second array, inclusive
+   * @param rightToIndex   the index of the last byte in the second array, exclusive
+   * @return true if the ranges are equal, otherwise false
+   */
+  public static boolean equals(final byte[] left, final int leftFromIndex, final int leftToIndex,
+                               final byte[] right, final int rightFromIndex, final int rightToIndex) {
+    checkRange(left.length, leftFromIndex, leftToIndex);
+    checkRange(right.length, rightFromIndex, rightToIndex);
+    return leftToIndex - leftFromIndex == rightToIndex - rightFromIndex
+        && mismatch(left, leftFromIndex, leftToIndex, right, rightFromIndex, rightToIndex) == NO_MISMATCH;
+  }
+
+}
@@ -0,0 +1,330 @@
+package org.ak80.ubyte;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.ak80.ubyte.ByteAccess.checkRange;
+
+/**
+ * Sorts byte data in unsigned order, i.e. in the order of {@link Ubyte#toUnsignedByte(int)}
+ * <p>
+ * Byte arrays are sorted in linear time by counting the values with a {@link ByteHistogram}. Fixed length keys, given
+ * as byte arrays or at offsets in one large buffer, are sorted by permuting an array of indexes or offsets with a
+ * stable least significant digit radix sort, one counting pass per key byte. Passes over a key byte that is the same
+ * for all keys are skipped.
+ * </p>
+ * <p>
+ * The parallel variants first distribute the keys by their first byte, then sort the 256 buckets in parallel. They
+ * fall back to the sequential sort for small inputs.
+ * </p>
+ * <p>
+ * Copyright [2015] [Alexander Koch]
+ * </p>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * </p>
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * </p>
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </p>
+ */
+public final class UnsignedSort {
+
+  private static final int VALUES = 256;
+  private static final int PARALLEL_THRESHOLD = 1 << 16;
+  private static final int INSERTION_SORT_THRESHOLD = 32;
+
+  private UnsignedSort() {
+    // hide
+  }
+
+  /**
+   * Sorts the array in unsigned order
+   *
+   * @param array the array to sort
+   */
+  public static void sort(final byte[] array) {
+    sort(array, 0, array.length);
+  }
+
+  /**
+   * Sorts the range of the array in unsigned order
+   *
+   * @param array     the array to sort
+   * @param fromIndex the index of the first byte to sort, inclusive
+   * @param toIndex   the index of the last byte to sort, exclusive
+   */
+  public static void sort(final byte[] array, final int fromIndex, final int toIndex) {
+    checkRange(array.length, fromIndex, toIndex);
+    fill(array, fromIndex, new ByteHistogram().add(array, fromIndex, toIndex));
+  }
+
+  /**
+   * Sorts the array in unsigned order, counting and filling in parallel for large arrays
+   *
+   * @param array the array to sort
+   */
+  public static void parallelSort(final byte[] array) {
+    parallelSort(array, 0, array.length);
+  }
+
+  /**
+   * Sorts the range of the array in unsigned order, counting and filling in parallel for large ranges
+   *
+   * @param array     the array to sort
+   * @param fromIndex the index of the first byte to sort, inclusive
+   * @param toIndex   the index of the last byte to sort, exclusive
+   */
+  public static void parallelSort(final byte[] array, final int fromIndex, final int toIndex) {
+    checkRange(array.length, fromIndex, toIndex);
+    if (toIndex - fromIndex < PARALLEL_THRESHOLD) {
+      sort(array, fromIndex, toIndex);
+      return;
+    }
+    long[] counts = new ByteHistogram().addParallel(array, fromIndex, toIndex).toArray();
+    int[] starts = new int[VALUES + 1];
+    starts[0] = fromIndex;
+    for (int value = 0; value < VALUES; value++) {
+      starts[value + 1] = starts[value] + (int) counts[value];
+    }
+    IntStream.range(0, VALUES).parallel()
+        .forEach(value -> Arrays.fill(array, starts[value], starts[value + 1], (byte) value));
+  }
+
+  /**
+   * Returns the indexes of the keys in unsigned order of the keys, the sort is stable
+   *
+   * @param keys the keys, all of the same length
+   * @return the indexes of the keys, so that keys[indexes[0]] is the smallest key
+   */
+  public static int[] sortedIndexes(final byte[][] keys) {
+    int[] indexes = identity(keys.length);
+    sortIndexes(keys, indexes);
+    return indexes;
+  }
+
+  /**
+   * Sorts the indexes in unsigned order of the keys they refer to, the sort is stable
+   *
+   * @param keys    the keys, all of the same length
+   * @param indexes the indexes into keys to sort
+   */
+  public static void sortIndexes(final byte[][] keys, final int[] indexes) {
+    sort(new ArrayKeys(keys), indexes, false);
+  }
+
+  /**
+   * Sorts the indexes in unsigned order of the keys they refer to, sorting in parallel for many indexes
+   *
+   * @param keys    the keys, all of the same length
+   * @param indexes the indexes into keys to sort
+   */
+  public static void parallelSortIndexes(final byte[][] keys, final int[] indexes) {
+    sort(new ArrayKeys(keys), indexes, true);
+  }
+
+  /**
+   * Sorts the offsets in unsigned order of the keys starting at them, the sort is stable
+   *
+   * @param buffer    the buffer holding the keys
+   * @param offsets   the offsets of the keys in the buffer to sort
+   * @param keyLength the length of each key
+   */
+  public static void sortOffsets(final byte[] buffer, final int[] offsets, final int keyLength) {
+    sort(new BufferKeys(buffer, offsets, keyLength), offsets, false);
+  }
+
+  /**
+   * Sorts the offsets in unsigned order of the keys starting at them, sorting in parallel for many offsets
+   *
+   * @param buffer    the buffer holding the keys
+   * @param offsets   the offsets of the keys in the buffer to sort
+   * @param keyLength the length of each key
+   */
+  public static void parallelSortOffsets(final byte[] buffer, final int[] offsets, final int keyLength) {
+    sort(new BufferKeys(buffer, offsets, keyLength), offsets, true);
+  }
+
+  private static void fill(final byte[] array, final int fromIndex, final ByteHistogram histogram) {
+    int position = fromIndex;
+    for (int value = 0; value < VALUES; value++) {
+      int count = (int) histogram.count(value);
+      Arrays.fill(array, position, position + count, (byte) value);
+      position += count;
+    }
+  }
+
+  private static int[] identity(final int length) {
+    int[] indexes = new int[length];
+    for (int i = 0; i < length; i++) {
+      indexes[i] = i;
+    }
+    return indexes;
+  }
+
+  private static void sort(final Keys keys, final int[] elements, final boolean parallel) {
+    int[] buffer = new int[elements.length];
+    if (!parallel || elements.length < PARALLEL_THRESHOLD || keys.length() == 0) {
+      sortRange(keys, elements, buffer, 0, elements.length, 0);
+      return;
+    }
+    int[] starts = new int[VALUES + 1];
+    if (distribute(keys, elements, buffer, 0, elements.length, 0, starts)) {
+      System.arraycopy(buffer, 0, elements, 0, elements.length);
+    }
+    IntStream.range(0, VALUES).parallel()
+        .forEach(value -> sortRange(keys, elements, buffer, starts[value], starts[value + 1], 1));
+  }
+
+  /**
+   * Sorts the range of elements by the key bytes from firstDigit to the end of the key, using the same range of
+   * buffer as temporary storage
+   */
+  private static void sortRange(final Keys keys, final int[] elements, final int[] buffer,
+                                final int fromIndex, final int toIndex, final int firstDigit) {
+    if (toIndex - fromIndex < INSERTION_SORT_THRESHOLD) {
+      insertionSort(keys, elements, fromIndex, toIndex, firstDigit);
+      return;
+    }
+    int[] source = elements;
+    int[] target = buffer;
+    int[] starts = new int[VALUES + 1];
+    for (int digit = keys.length() - 1; digit >= firstDigit; digit--) {
+      if (distribute(keys, source, target, fromIndex, toIndex, digit, starts)) {
+        int[] swap = source;
+        source = target;
+        target = swap;
+      }
+    }
+    if (source != elements) {
+      System.arraycopy(source, fromIndex, elements, fromIndex, toIndex - fromIndex);
+    }
+  }
+
+  /**
+   * Distributes the range of source into target by the key byte at digit, keeping the order of elements with the
+   * same byte, and stores the start index of each byte value in starts
+   *
+   * @return false if all elements have the same byte and nothing was moved
+   */
+  private static boolean distribute(final Keys keys, final int[] source, final int[] target,
+                                    final int fromIndex, final int toIndex, final int digit, final int[] starts) {
+    Arrays.fill(starts, 0);
+    for (int i = fromIndex; i < toIndex; i++) {
+      starts[keys.digit(source[i], digit) + 1]++;
+    }
+    starts[0] = fromIndex;
+    for (int value = 0; value < VALUES; value++) {
+      if (starts[value + 1] == toIndex - fromIndex) {
+        Arrays.fill(starts, 0, value + 1, fromIndex);
+        Arrays.fill(starts, value + 1, VALUES + 1, toIndex);
+        return false;
+      }
+      starts[value + 1] += starts[value];
+    }
+    int[] positions = Arrays.copyOf(starts, VALUES);
+    for (int i = fromIndex; i < toIndex; i++) {
+      target[positions[keys.digit(source[i], digit)]++] = source[i];
+    }
+    return true;
+  }
+
+  private static void insertionSort(final Keys keys, final int[] elements, final int fromIndex, final int toIndex,
+                                    final int firstDigit) {
+    for (int i = fromIndex + 1; i < toIndex; i++) {
+      int element = elements[i];
+      int j = i - 1;
+      while (j >= fromIndex && keys.compare(elements[j], element, firstDigit) > 0) {
+        elements[j + 1] = elements[j];
+        j--;
+      }
+      elements[j + 1] = element;
+    }
+  }
+
+  /**
+   * Access to the bytes of the keys referred to by the elements that are sorted
+   */
+  private interface Keys {
+
+    int length();
+
+    int digit(int element, int digit);
+
+    default int compare(final int left, final int right, final int firstDigit) {
+      for (int digit = firstDigit; digit < length(); digit++) {
+        int difference = digit(left, digit) - digit(right, digit);
+        if (difference != 0) {
+          return difference;
+        }
+      }
+      return 0;
+    }
+
+  }
+
+  private static final class ArrayKeys implements Keys {
+
+    private final byte[][] keys;
+    private final int length;
+
+    ArrayKeys(final byte[][] keys) {
+      this.keys = keys;
+      this.length = keys.length == 0 ? 0 : keys[0].length;
+      for (byte[] key : keys) {
+        if (key.length != length) {
+          throw new IllegalArgumentException(String.format("All keys must have the same length, but found %s and %s",
+              length, key.length));
+        }
+      }
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public int digit(final int element, final int digit) {
+      return keys[element][digit] & 0xff;
+    }
+
+  }
+
+  private static final class BufferKeys implements Keys {
+
+    private final byte[] buffer;
+    private final int length;
+
+    BufferKeys(final byte[] buffer, final int[] offsets, final int length) {
+      if (length < 0) {
+        throw new IllegalArgumentException(String.format("A key length of %s is not allowed, it must not be negative", length));
+      }
+      for (int offset : offsets) {
+        checkRange(buffer.length, offset, offset + length);
+      }
+      this.buffer = buffer;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public int digit(final int element, final int digit) {
+      return buffer[element + digit] & 0xff;
+    }
+
+  }
+
+}
@@ -0,0 +1,128 @@
+package org.ak80.ubyte;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+/**
+ * Simple benchmark comparing {@link BaseEncoding} with the hex path of the library, i.e.
+ * {@link Ubyte#formatByteAsHex(int)} and the digit table used by {@link HexOutputStream}, and with the Base64 encoder
+ * of the JDK
+ * <p/>
+ * This is not a unit test and is not run by the build. Run the main method with the test classpath, e.g.
+ * <pre>mvn test-compile exec:java -Dexec.mainClass=org.ak80.ubyte.BaseEncodingBenchmark -Dexec.classpathScope=test</pre>
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public final class BaseEncodingBenchmark {
+
+  private static final int[] PAYLOAD_LENGTHS = {16, 256, 4096};
+  private static final int ROUNDS = 5;
+
+  private BaseEncodingBenchmark() {
+    // hide
+  }
+
+  public static void main(String[] args) {
+    Random random = new Random(42);
+    for (int payloadLength : PAYLOAD_LENGTHS) {
+      byte[] payload = new byte[payloadLength];
+      random.nextBytes(payload);
+      char[] text = new char[2 * payloadLength];
+      byte[] ascii = new byte[2 * payloadLength];
+      byte[] base64 = Base64.getEncoder().encode(payload);
+      byte[] decoded = new byte[payloadLength];
+      int iterations = Math.max(1, 50_000_000 / payloadLength);
+
+      long[] nanos = new long[7];
+      Arrays.fill(nanos, Long.MAX_VALUE);
+      long sink = 0;
+      for (int round = 0; round < ROUNDS; round++) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations / 10; i++) {
+          sink += formatAsHex(payload).length();
+        }
+        nanos[0] = Math.min(nanos[0], (System.nanoTime() - start) * 10);
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          sink += encodeHex(payload, text);
+        }
+        nanos[1] = Math.min(nanos[1], System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          sink += BaseEncoding.BASE64.encode(payload, 0, payload.length, text, 0);
+        }
+        nanos[2] = Math.min(nanos[2], System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          sink += BaseEncoding.BASE32.encode(payload, 0, payload.length, text, 0);
+        }
+        nanos[3] = Math.min(nanos[3], System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          sink += Base64.getEncoder().encode(payload, ascii);
+        }
+        nanos[4] = Math.min(nanos[4], System.nanoTime() - start);
+
+        int hexLength = encodeHex(payload, text);
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          sink += decodeHex(text, hexLength, decoded);
+        }
+        nanos[5] = Math.min(nanos[5], System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          sink += BaseEncoding.BASE64.decode(base64, 0, base64.length, decoded, 0);
+        }
+        nanos[6] = Math.min(nanos[6], System.nanoTime() - start);
+      }
+      double bytes = (double) iterations * payloadLength;
+      System.out.println(String.format("payload %4d: encode formatByteAsHex %5.2f, hex %5.2f, Base64 %5.2f, "
+              + "Base32 %5.2f, JDK Base64 %5.2f; decode hex %5.2f, Base64 %5.2f ns/byte (%s)", payloadLength,
+          nanos[0] / bytes, nanos[1] / bytes, nanos[2] / bytes, nanos[3] / bytes, nanos[4] / bytes,
+          nanos[5] / bytes, nanos[6] / bytes, sink));
+    }
+  }
+
+  private static String formatAsHex(byte[] payload) {
+    StringBuilder builder = new StringBuilder(2 * payload.length);
+    for (byte value : payload) {
+      builder.append(Ubyte.formatByteAsHex(value));
+    }
+    return builder.toString();
+  }
+
+  private static int encodeHex(byte[] payload, char[] text) {
+    int position = 0;
+    for (byte value : payload) {
+      text[position++] = HexDigits.toDigit(value >>> 4);
+      text[position++] = HexDigits.toDigit(value);
+    }
+    return position;
+  }
+
+  private static int decodeHex(char[] text, int length, byte[] decoded) {
+    for (int i = 0; i < length; i += 2) {
+      decoded[i >>> 1] = (byte) (HexDigits.toValue(text[i]) << 4 | HexDigits.toValue(text[i + 1]));
+    }
+    return length >>> 1;
+  }
+
+}
@@ -0,0 +1,165 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for classes {@link BaseEncodingOutputStream} and {@link BaseEncodingInputStream}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class BaseEncodingStreamTest {
+
+  private static final BaseEncoding[] ENCODINGS = {BaseEncoding.BASE64, BaseEncoding.BASE64_URL.withoutPadding(),
+      BaseEncoding.BASE32, BaseEncoding.BASE32.withoutPadding()};
+
+  /**
+   * Test that chunked writes give the same text as encoding the whole array, and that chunked reads decode it again
+   */
+  @Test
+  public void chunkedWritesAndReads_roundTrip() throws IOException {
+    Random random = new Random(42);
+    for (BaseEncoding encoding : ENCODINGS) {
+      for (int run = 0; run < 20; run++) {
+        // Given
+        byte[] array = new byte[random.nextInt(30000)];
+        random.nextBytes(array);
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+
+        // When
+        try (OutputStream out = new BaseEncodingOutputStream(text, encoding)) {
+          int index = 0;
+          while (index < array.length) {
+            int length = Math.min(array.length - index, random.nextInt(20000));
+            if (length == 1) {
+              out.write(array[index]);
+            } else {
+              out.write(array, index, length);
+            }
+            index += length;
+          }
+        }
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        try (InputStream in = new BaseEncodingInputStream(new ByteArrayInputStream(text.toByteArray()), encoding)) {
+          byte[] chunk = new byte[10000];
+          int count;
+          while ((count = in.read(chunk, 0, 1 + random.nextInt(chunk.length))) != -1) {
+            decoded.write(chunk, 0, count);
+          }
+        }
+
+        // Then
+        assertThat(new String(text.toByteArray(), StandardCharsets.US_ASCII), is(encoding.encode(array)));
+        assertThat(decoded.toByteArray(), is(array));
+      }
+    }
+  }
+
+  /**
+   * Test that the text is buffered until flushing, and that flushing writes only complete groups
+   */
+  @Test
+  public void flush_writesCompleteGroups() throws IOException {
+    // Given
+    ByteArrayOutputStream text = new ByteArrayOutputStream();
+    BaseEncodingOutputStream out = new BaseEncodingOutputStream(text, BaseEncoding.BASE64);
+
+    // When
+    for (byte b : "foob".getBytes(StandardCharsets.US_ASCII)) {
+      out.write(b);
+    }
+    int bufferedSize = text.size();
+    out.flush();
+    String flushed = text.toString("US-ASCII");
+    out.finish();
+
+    // Then
+    assertThat(bufferedSize, is(0));
+    assertThat(flushed, is("Zm9v"));
+    assertThat(text.toString("US-ASCII"), is("Zm9vYg=="));
+  }
+
+  /**
+   * Test that line breaks in the text are skipped
+   */
+  @Test
+  public void lineBreaks_skipped() throws IOException {
+    // Given
+    InputStream in = new BaseEncodingInputStream(
+        new ByteArrayInputStream("Zm9v\r\nYmFy\r\nZg==\r\n".getBytes(StandardCharsets.US_ASCII)), BaseEncoding.BASE64);
+
+    // When Then
+    for (byte expected : "foobarf".getBytes(StandardCharsets.US_ASCII)) {
+      assertThat(in.read(), is((int) expected));
+    }
+    assertThat(in.read(), is(-1));
+  }
+
+  /**
+   * Test that skipping a negative or zero number of bytes skips nothing
+   */
+  @Test
+  public void notPositiveSkip_skipsNothing() throws IOException {
+    // Given
+    InputStream in = new BaseEncodingInputStream(
+        new ByteArrayInputStream("Zm9vYmFy".getBytes(StandardCharsets.US_ASCII)), BaseEncoding.BASE64);
+
+    // When Then
+    assertThat(in.skip(-1), is(0L));
+    assertThat(in.skip(0), is(0L));
+    assertThat(in.skip(2), is(2L));
+    assertThat(in.read(), is((int) 'o'));
+  }
+
+  /**
+   * Test that a negative length is rejected as required by {@link InputStream#read(byte[], int, int)}
+   */
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void negativeLength_throwsException() throws IOException {
+    new BaseEncodingInputStream(new ByteArrayInputStream(new byte[0]), BaseEncoding.BASE64).read(new byte[4], 0, -1);
+  }
+
+  /**
+   * Test that invalid text is an error
+   */
+  @Test(expected = IOException.class)
+  public void invalidText_throwsException() throws IOException {
+    InputStream in = new BaseEncodingInputStream(
+        new ByteArrayInputStream("Zg==Zm9v".getBytes(StandardCharsets.US_ASCII)), BaseEncoding.BASE64);
+    in.skip(10);
+  }
+
+  /**
+   * Test that writing after finishing is an error
+   */
+  @Test(expected = IOException.class)
+  public void writeAfterFinish_throwsException() throws IOException {
+    BaseEncodingOutputStream out = new BaseEncodingOutputStream(new ByteArrayOutputStream(), BaseEncoding.BASE32);
+    out.finish();
+    out.write(1);
+  }
+
+}
@@ -0,0 +1,185 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for class {@link BaseEncoding}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class BaseEncodingTest {
+
+  private static final String[] INPUT = {"", "f", "fo", "foo", "foob", "fooba", "foobar"};
+
+  /**
+   * Test the Base64 test vectors of RFC 4648
+   */
+  @Test
+  public void base64_testVectors() {
+    String[] expected = {"", "Zg==", "Zm8=", "Zm9v", "Zm9vYg==", "Zm9vYmE=", "Zm9vYmFy"};
+    for (int i = 0; i < INPUT.length; i++) {
+      assertThat(BaseEncoding.BASE64.encode(bytes(INPUT[i])), is(expected[i]));
+      assertThat(BaseEncoding.BASE64.decode(expected[i]), is(bytes(INPUT[i])));
+      assertThat(BaseEncoding.BASE64.withoutPadding().encode(bytes(INPUT[i])), is(expected[i].replace("=", "")));
+      assertThat(BaseEncoding.BASE64.decode(expected[i].replace("=", "")), is(bytes(INPUT[i])));
+    }
+  }
+
+  /**
+   * Test the Base32 test vectors of RFC 4648
+   */
+  @Test
+  public void base32_testVectors() {
+    String[] expected = {"", "MY======", "MZXQ====", "MZXW6===", "MZXW6YQ=", "MZXW6YTB", "MZXW6YTBOI======"};
+    for (int i = 0; i < INPUT.length; i++) {
+      assertThat(BaseEncoding.BASE32.encode(bytes(INPUT[i])), is(expected[i]));
+      assertThat(BaseEncoding.BASE32.decode(expected[i]), is(bytes(INPUT[i])));
+      assertThat(BaseEncoding.BASE32.withoutPadding().encode(bytes(INPUT[i])), is(expected[i].replace("=", "")));
+      assertThat(BaseEncoding.BASE32.decode(expected[i].replace("=", "")), is(bytes(INPUT[i])));
+    }
+  }
+
+  /**
+   * Test random data against the Base64 encoder of the JDK
+   */
+  @Test
+  public void randomData_sameAsJdk() {
+    Random random = new Random(42);
+    for (int run = 0; run < 200; run++) {
+      // Given
+      byte[] array = new byte[random.nextInt(100)];
+      random.nextBytes(array);
+
+      // When Then
+      assertThat(BaseEncoding.BASE64.encode(array), is(Base64.getEncoder().encodeToString(array)));
+      assertThat(BaseEncoding.BASE64_URL.encode(array), is(Base64.getUrlEncoder().encodeToString(array)));
+      assertThat(BaseEncoding.BASE64_URL.withoutPadding().encode(array),
+          is(Base64.getUrlEncoder().withoutPadding().encodeToString(array)));
+      assertThat(BaseEncoding.BASE64_URL.decode(Base64.getUrlEncoder().encodeToString(array)), is(array));
+      assertThat(BaseEncoding.BASE32.decode(BaseEncoding.BASE32.encode(array)), is(array));
+
+      for (BaseEncoding encoding : new BaseEncoding[]{BaseEncoding.BASE64, BaseEncoding.BASE32.withoutPadding()}) {
+        byte[] ascii = new byte[encoding.encodedLength(array.length)];
+        char[] chars = new char[ascii.length];
+        byte[] decoded = new byte[array.length];
+        encoding.encode(array, 0, array.length, ascii, 0);
+        encoding.encode(array, 0, array.length, chars, 0);
+        assertThat(new String(ascii, StandardCharsets.US_ASCII), is(new String(chars)));
+        assertThat(encoding.decode(ascii, 0, ascii.length, decoded, 0), is(array.length));
+        assertThat(decoded, is(array));
+      }
+    }
+  }
+
+  /**
+   * Test encoding and decoding ranges of arrays into ASCII byte arrays and char arrays
+   */
+  @Test
+  public void arrayRanges_encodeDecode() {
+    // Given
+    byte[] source = bytes("xxfoobarxx");
+    byte[] ascii = new byte[12];
+    char[] chars = new char[12];
+    byte[] decoded = new byte[8];
+
+    // When
+    int asciiLength = BaseEncoding.BASE64.encode(source, 2, 7, ascii, 1);
+    int charsLength = BaseEncoding.BASE32.withoutPadding().encode(source, 2, 7, chars, 2);
+
+    // Then
+    assertThat(asciiLength, is(8));
+    assertThat(new String(ascii, 1, asciiLength, StandardCharsets.US_ASCII), is("Zm9vYmE="));
+    assertThat(charsLength, is(8));
+    assertThat(new String(chars, 2, charsLength), is("MZXW6YTB"));
+    assertThat(BaseEncoding.BASE64.decode(ascii, 1, 1 + asciiLength, decoded, 3), is(5));
+    assertThat(BaseEncoding.BASE32.decode(chars, 2, 2 + charsLength, decoded, 0), is(5));
+    assertThat(decoded, is(bytes("foobaoba")));
+  }
+
+  /**
+   * Test decoding char sequences other than strings
+   */
+  @Test
+  public void charSequences_decode() {
+    // Given
+    StringBuilder base64 = new StringBuilder("Zm9v").append("YmE=");
+    CharSequence base32 = CharBuffer.wrap("xMZXW6YTBx").subSequence(1, 9);
+
+    // When Then
+    assertThat(BaseEncoding.BASE64.decode(base64), is(bytes("fooba")));
+    assertThat(BaseEncoding.BASE32.withoutPadding().decode(base32), is(bytes("fooba")));
+  }
+
+  /**
+   * Test the length calculations
+   */
+  @Test
+  public void lengths() {
+    assertThat(BaseEncoding.BASE64.encodedLength(4), is(8));
+    assertThat(BaseEncoding.BASE64.withoutPadding().encodedLength(4), is(6));
+    assertThat(BaseEncoding.BASE32.encodedLength(6), is(16));
+    assertThat(BaseEncoding.BASE32.withoutPadding().encodedLength(6), is(10));
+    assertThat(BaseEncoding.BASE64.maxDecodedLength(6), is(4));
+    assertThat(BaseEncoding.BASE32.maxDecodedLength(10), is(6));
+    assertThat(BaseEncoding.BASE32.bytesPerGroup(), is(5));
+    assertThat(BaseEncoding.BASE32.charsPerGroup(), is(8));
+  }
+
+  /**
+   * Test that a character outside the alphabet is rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidCharacter_throwsException() {
+    BaseEncoding.BASE64.decode("Zm9v-mFy");
+  }
+
+  /**
+   * Test that a character outside of ISO 8859-1 is rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void nonLatinCharacter_throwsException() {
+    BaseEncoding.BASE32.decode("MZXW6YT\u0142");
+  }
+
+  /**
+   * Test that a text length that no byte length encodes to is rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidLength_throwsException() {
+    BaseEncoding.BASE32.decode("MZX");
+  }
+
+  /**
+   * Test that incomplete padding is rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void incompletePadding_throwsException() {
+    BaseEncoding.BASE64.decode("Zg=");
+  }
+
+  private static byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.US_ASCII);
+  }
+
+}
@@ -0,0 +1,137 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for class {@link BitMatrix}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class BitMatrixTest {
+
+  /**
+   * Test transposing single rows and columns
+   */
+  @Test
+  public void transpose8x8_rowsAndColumns() {
+    assertThat(BitMatrix.transpose8x8(0L), is(0L));
+    assertThat(BitMatrix.transpose8x8(-1L), is(-1L));
+    assertThat(BitMatrix.transpose8x8(0xffL), is(0x0101010101010101L));
+    assertThat(BitMatrix.transpose8x8(0x0101010101010101L), is(0xffL));
+    assertThat(BitMatrix.transpose8x8(0x8000000000000000L), is(0x8000000000000000L));
+    assertThat(BitMatrix.transpose8x8(0x80L), is(0x0100000000000000L));
+  }
+
+  /**
+   * Test transposing random matrices against a naive transpose
+   */
+  @Test
+  public void transpose8x8_sameAsNaive() {
+    Random random = new Random(42);
+    for (int i = 0; i < 10000; i++) {
+      long matrix = random.nextLong();
+      assertThat(BitMatrix.transpose8x8(matrix), is(naiveTranspose(matrix)));
+      assertThat(BitMatrix.transpose8x8(BitMatrix.transpose8x8(matrix)), is(matrix));
+    }
+  }
+
+  /**
+   * Test splitting bytes into bit planes against a naive split with {@link Ubyte#bitIsSet(int, Bits)}
+   */
+  @Test
+  public void splitBitPlanes_sameAsNaive() {
+    // Given
+    Random random = new Random(7);
+    byte[] source = new byte[3 + 64];
+    random.nextBytes(source);
+    byte[] planes = new byte[1 + 64];
+
+    // When
+    BitMatrix.splitBitPlanes(source, 3, source.length, planes, 1);
+
+    // Then
+    for (int plane = 0; plane < 8; plane++) {
+      for (int group = 0; group < 8; group++) {
+        int expected = 0;
+        for (int j = 0; j < 8; j++) {
+          expected = Ubyte.setFlag(expected, Bits.getBit(j),
+              Ubyte.bitIsSet(source[3 + group * 8 + j], Bits.getBit(plane)));
+        }
+        assertThat(Ubyte.toUnsignedByte(planes[1 + plane * 8 + group]), is(expected));
+      }
+    }
+  }
+
+  /**
+   * Test that merging bit planes restores the bytes
+   */
+  @Test
+  public void mergeBitPlanes_roundTrip() {
+    // Given
+    Random random = new Random(3);
+    byte[] source = new byte[800];
+    random.nextBytes(source);
+    byte[] planes = new byte[800];
+    byte[] merged = new byte[802];
+
+    // When
+    BitMatrix.splitBitPlanes(source, 0, source.length, planes, 0);
+    BitMatrix.mergeBitPlanes(planes, 0, planes.length, merged, 2);
+
+    // Then
+    for (int i = 0; i < source.length; i++) {
+      assertThat(merged[2 + i], is(source[i]));
+    }
+  }
+
+  /**
+   * Test that a length that is not a multiple of eight is rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void incompleteGroup_throwsException() {
+    BitMatrix.splitBitPlanes(new byte[12], 0, 12, new byte[12], 0);
+  }
+
+  @Test
+  public void testPrivateConstructor() throws Exception {
+    Constructor constructor = BitMatrix.class.getDeclaredConstructor();
+    assertTrue("Constructor is not private", Modifier.isPrivate(constructor.getModifiers()));
+
+    constructor.setAccessible(true);
+    constructor.newInstance();
+  }
+
+  private static long naiveTranspose(long matrix) {
+    long transposed = 0;
+    for (int row = 0; row < 8; row++) {
+      for (int column = 0; column < 8; column++) {
+        if ((matrix >>> (row * 8 + column) & 1L) != 0) {
+          transposed |= 1L << (column * 8 + row);
+        }
+      }
+    }
+    return transposed;
+  }
+
+}
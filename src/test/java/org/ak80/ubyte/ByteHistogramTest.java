@@ -0,0 +1,123 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for class {@link ByteHistogram}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class ByteHistogramTest {
+
+  /**
+   * Test counting bytes and the derived statistics
+   */
+  @Test
+  public void count_statistics() {
+    // Given
+    byte[] array = Ubyte.toSignedByteArray(new int[]{0x10, 0xff, 0x10, 0x80, 0x10, 0x80, 0x20});
+
+    // When
+    ByteHistogram histogram = ByteHistogram.of(array);
+
+    // Then
+    assertThat(histogram.count(0x10), is(3L));
+    assertThat(histogram.count(0x80), is(2L));
+    assertThat(histogram.count(0xff), is(1L));
+    assertThat(histogram.count(-1), is(1L));
+    assertThat(histogram.count(0x00), is(0L));
+    assertThat(histogram.total(), is(7L));
+    assertThat(histogram.distinctCount(), is(4));
+    assertThat(histogram.min(), is(0x10));
+    assertThat(histogram.max(), is(0xff));
+    assertThat(histogram.mostFrequent(), is(0x10));
+  }
+
+  /**
+   * Test the statistics of an empty histogram
+   */
+  @Test
+  public void empty_statistics() {
+    // When
+    ByteHistogram histogram = new ByteHistogram();
+
+    // Then
+    assertThat(histogram.total(), is(0L));
+    assertThat(histogram.distinctCount(), is(0));
+    assertThat(histogram.min(), is(-1));
+    assertThat(histogram.max(), is(-1));
+    assertThat(histogram.mostFrequent(), is(-1));
+    assertEquals(0.0, histogram.entropy(), 0.0);
+  }
+
+  /**
+   * Test the entropy of a single value, two values and all values
+   */
+  @Test
+  public void entropy_bitsPerByte() {
+    // Given
+    byte[] allValues = new byte[256 * 4];
+    for (int i = 0; i < allValues.length; i++) {
+      allValues[i] = (byte) i;
+    }
+
+    // When Then
+    assertEquals(0.0, ByteHistogram.of(new byte[100]).entropy(), 1e-9);
+    assertEquals(1.0, ByteHistogram.of(new byte[]{0, 1, 0, 1}).entropy(), 1e-9);
+    assertEquals(8.0, ByteHistogram.of(allValues).entropy(), 1e-9);
+  }
+
+  /**
+   * Test that ranges, buffers, merged and parallel histograms count the same as a naive loop
+   */
+  @Test
+  public void randomData_sameAsNaiveLoop() {
+    // Given
+    byte[] array = new byte[1_000_003];
+    Random random = new Random(42);
+    for (int i = 0; i < array.length; i++) {
+      array[i] = (byte) (random.nextGaussian() * 20);
+    }
+    long[] expected = new long[256];
+    for (int i = 5; i < array.length - 3; i++) {
+      expected[Ubyte.toUnsignedByte(array[i])]++;
+    }
+
+    // When Then
+    assertThat(new ByteHistogram().add(array, 5, array.length - 3).toArray(), is(expected));
+    assertThat(new ByteHistogram().addParallel(array, 5, array.length - 3).toArray(), is(expected));
+    assertThat(new ByteHistogram().add(array, 5, 1000).merge(new ByteHistogram().add(array, 1000, array.length - 3))
+        .toArray(), is(expected));
+
+    ByteBuffer direct = ByteBuffer.allocateDirect(array.length).order(ByteOrder.LITTLE_ENDIAN);
+    direct.put(array).position(5).limit(array.length - 3);
+    assertThat(ByteHistogram.of(direct).toArray(), is(expected));
+    assertThat(direct.position(), is(5));
+
+    ByteBuffer heap = ByteBuffer.wrap(array);
+    heap.position(5).limit(array.length - 3);
+    assertThat(ByteHistogram.of(heap.slice()).toArray(), is(expected));
+  }
+
+}
@@ -0,0 +1,132 @@
+package org.ak80.ubyte;
+
+/**
+ * Simple benchmark comparing {@link ByteSearch#indexOf(byte[], int)}, {@link ByteSearch#lastIndexOf(byte[], int)}
+ * and {@link ByteSearch#findAll(byte[], int, int, byte[], int[])} with naive loops comparing one byte at a time
+ * <p/>
+ * This is not a unit test and is not run by the build. Run the main method with the test classpath, e.g.
+ * <pre>mvn test-compile exec:java -Dexec.mainClass=org.ak80.ubyte.ByteSearchBenchmark -Dexec.classpathScope=test</pre>
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public final class ByteSearchBenchmark {
+
+  private static final int[] LENGTHS = {64, 1024, 65536};
+  private static final byte[] DELIMITERS = {',', ';', '\n'};
+  private static final int ROUNDS = 10;
+
+  private ByteSearchBenchmark() {
+    // hide
+  }
+
+  public static void main(String[] args) {
+    for (int length : LENGTHS) {
+      byte[] array = new byte[length];
+      array[length - 1] = 1;
+      byte[] first = new byte[length];
+      first[0] = 1;
+      byte[] text = textWithDelimiters(length);
+      int[] offsets = new int[length];
+      int iterations = Math.max(1, 50_000_000 / length);
+      long sink = 0;
+      long naiveNanos = Long.MAX_VALUE;
+      long wordNanos = Long.MAX_VALUE;
+      long naiveLastNanos = Long.MAX_VALUE;
+      long wordLastNanos = Long.MAX_VALUE;
+      long naiveFindAllNanos = Long.MAX_VALUE;
+      long wordFindAllNanos = Long.MAX_VALUE;
+      for (int round = 0; round < ROUNDS; round++) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          sink += naiveIndexOf(array, 1);
+        }
+        naiveNanos = Math.min(naiveNanos, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          sink += ByteSearch.indexOf(array, 1);
+        }
+        wordNanos = Math.min(wordNanos, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          sink += naiveLastIndexOf(first, 1);
+        }
+        naiveLastNanos = Math.min(naiveLastNanos, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          sink += ByteSearch.lastIndexOf(first, 1);
+        }
+        wordLastNanos = Math.min(wordLastNanos, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          sink += naiveFindAll(text, offsets);
+        }
+        naiveFindAllNanos = Math.min(naiveFindAllNanos, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          sink += ByteSearch.findAll(text, 0, text.length, DELIMITERS, offsets);
+        }
+        wordFindAllNanos = Math.min(wordFindAllNanos, System.nanoTime() - start);
+      }
+      System.out.println(String.format("length %6d: indexOf naive %9.1f, word %9.1f; lastIndexOf naive %9.1f, "
+              + "word %9.1f; findAll naive %9.1f, word %9.1f ns/search (%s)", length,
+          (double) naiveNanos / iterations, (double) wordNanos / iterations,
+          (double) naiveLastNanos / iterations, (double) wordLastNanos / iterations,
+          (double) naiveFindAllNanos / iterations, (double) wordFindAllNanos / iterations, sink));
+    }
+  }
+
+  private static byte[] textWithDelimiters(int length) {
+    byte[] text = new byte[length];
+    for (int i = 0; i < length; i++) {
+      text[i] = (byte) (i % 40 == 39 ? ',' : 'a' + i % 26);
+    }
+    return text;
+  }
+
+  private static int naiveIndexOf(byte[] array, int value) {
+    for (int i = 0; i < array.length; i++) {
+      if (array[i] == (byte) value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int naiveLastIndexOf(byte[] array, int value) {
+    for (int i = array.length - 1; i >= 0; i--) {
+      if (array[i] == (byte) value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int naiveFindAll(byte[] array, int[] offsets) {
+    int count = 0;
+    for (int i = 0; i < array.length; i++) {
+      byte b = array[i];
+      if (b == ',' || b == ';' || b == '\n') {
+        offsets[count++] = i;
+      }
+    }
+    return count;
+  }
+
+}
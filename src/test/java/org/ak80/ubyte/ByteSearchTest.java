@@ -0,0 +1,290 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for class {@link ByteSearch}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class ByteSearchTest {
+
+  private static final byte[] SAMPLE = Ubyte.toSignedByteArray(new int[]{
+      0x7e, 0x01, 0x02, 0xff, 0x00, 0x01, 0x02, 0x7e, 0x80, 0x01, 0x02, 0x03, 0x7e});
+
+  /**
+   * Test finding the first and last occurrence of a single unsigned byte
+   */
+  @Test
+  public void singleByte_indexOf_lastIndexOf() {
+    // When Then
+    assertThat(ByteSearch.indexOf(SAMPLE, 0x7e), is(0));
+    assertThat(ByteSearch.indexOf(SAMPLE, 0xff), is(3));
+    assertThat(ByteSearch.indexOf(SAMPLE, -1), is(3));
+    assertThat(ByteSearch.indexOf(SAMPLE, 0x80), is(8));
+    assertThat(ByteSearch.indexOf(SAMPLE, 0x03), is(11));
+    assertThat(ByteSearch.indexOf(SAMPLE, 0x55), is(-1));
+    assertThat(ByteSearch.indexOf(SAMPLE, 1, 13, 0x7e), is(7));
+    assertThat(ByteSearch.indexOf(SAMPLE, 8, 12, 0x7e), is(-1));
+
+    assertThat(ByteSearch.lastIndexOf(SAMPLE, 0x7e), is(12));
+    assertThat(ByteSearch.lastIndexOf(SAMPLE, 0x01), is(9));
+    assertThat(ByteSearch.lastIndexOf(SAMPLE, 0x00), is(4));
+    assertThat(ByteSearch.lastIndexOf(SAMPLE, 0x55), is(-1));
+    assertThat(ByteSearch.lastIndexOf(SAMPLE, 0, 12, 0x7e), is(7));
+    assertThat(ByteSearch.lastIndexOf(SAMPLE, 1, 7, 0x7e), is(-1));
+  }
+
+  /**
+   * Test that bytes next to a match, which would produce false positives with a simple zero byte test, are handled
+   */
+  @Test
+  public void singleByte_noFalsePositives() {
+    // Given
+    byte[] array = {0x01, 0x01, 0x01, 0x01, 0x01, 0x01, 0x01, 0x00};
+
+    // When Then
+    assertThat(ByteSearch.indexOf(array, 0x00), is(7));
+    assertThat(ByteSearch.lastIndexOf(new byte[]{0x00, 0x01, 0x01, 0x01, 0x01, 0x01, 0x01, 0x01}, 0x00), is(0));
+  }
+
+  /**
+   * Test finding the first and last occurrence of a byte pattern
+   */
+  @Test
+  public void pattern_indexOf_lastIndexOf() {
+    // Given
+    byte[] pattern = {0x01, 0x02};
+
+    // When Then
+    assertThat(ByteSearch.indexOf(SAMPLE, pattern), is(1));
+    assertThat(ByteSearch.indexOf(SAMPLE, 2, 13, pattern), is(5));
+    assertThat(ByteSearch.indexOf(SAMPLE, new byte[]{0x01, 0x02, 0x03}), is(9));
+    assertThat(ByteSearch.indexOf(SAMPLE, new byte[]{0x02, 0x01}), is(-1));
+    assertThat(ByteSearch.indexOf(SAMPLE, 0, 2, pattern), is(-1));
+    assertThat(ByteSearch.indexOf(SAMPLE, new byte[]{}), is(0));
+    assertThat(ByteSearch.indexOf(SAMPLE, new byte[]{(byte) 0x80}), is(8));
+
+    assertThat(ByteSearch.lastIndexOf(SAMPLE, pattern), is(9));
+    assertThat(ByteSearch.lastIndexOf(SAMPLE, 0, 9, pattern), is(5));
+    assertThat(ByteSearch.lastIndexOf(SAMPLE, 0, 10, pattern), is(5));
+    assertThat(ByteSearch.lastIndexOf(SAMPLE, new byte[]{0x02, 0x01}), is(-1));
+    assertThat(ByteSearch.lastIndexOf(SAMPLE, new byte[]{}), is(13));
+  }
+
+  /**
+   * Test finding all offsets of several delimiters
+   */
+  @Test
+  public void delimiters_findAll() {
+    // Given
+    int[] offsets = new int[10];
+
+    // When Then
+    assertThat(ByteSearch.findAll(SAMPLE, 0, SAMPLE.length, new byte[]{0x7e, 0x00}, offsets), is(4));
+    assertThat(copy(offsets, 4), is(new int[]{0, 4, 7, 12}));
+
+    assertThat(ByteSearch.findAll(SAMPLE, 1, 12, new byte[]{0x7e}, offsets), is(1));
+    assertThat(offsets[0], is(7));
+
+    int[] small = new int[2];
+    assertThat(ByteSearch.findAll(SAMPLE, 0, SAMPLE.length, new byte[]{0x01}, small), is(2));
+    assertThat(small, is(new int[]{1, 5}));
+  }
+
+  /**
+   * Test that searching in heap, direct and little endian buffers respects position and limit
+   */
+  @Test
+  public void buffers_respectPositionAndLimit() {
+    for (ByteBuffer buffer : buffers(SAMPLE)) {
+      buffer.position(1).limit(12);
+
+      // When Then
+      assertThat(ByteSearch.indexOf(buffer, 0x7e), is(7));
+      assertThat(ByteSearch.lastIndexOf(buffer, 0x01), is(9));
+      assertThat(ByteSearch.indexOf(buffer, new byte[]{0x01, 0x02, 0x03}), is(9));
+      assertThat(ByteSearch.lastIndexOf(buffer, new byte[]{0x01, 0x02}), is(9));
+
+      int[] offsets = new int[10];
+      assertThat(ByteSearch.findAll(buffer, new byte[]{0x7e, (byte) 0x80}, offsets), is(2));
+      assertThat(copy(offsets, 2), is(new int[]{7, 8}));
+      assertThat(buffer.position(), is(1));
+    }
+  }
+
+  /**
+   * Test that finding more delimiters than fit the word loop works in heap, direct and little endian buffers
+   */
+  @Test
+  public void buffers_manyDelimiters_findAll() {
+    byte[] delimiters = {0x10, 0x11, 0x12, 0x13, 0x14, 0x15, 0x16, 0x7e, 0x01};
+    for (ByteBuffer buffer : buffers(SAMPLE)) {
+      buffer.position(1).limit(12);
+
+      // When
+      int[] offsets = new int[10];
+      int count = ByteSearch.findAll(buffer, delimiters, offsets);
+      int[] small = new int[1];
+
+      // Then
+      assertThat(count, is(4));
+      assertThat(copy(offsets, 4), is(new int[]{1, 5, 7, 9}));
+      assertThat(ByteSearch.findAll(buffer, delimiters, small), is(1));
+      assertThat(small[0], is(1));
+    }
+  }
+
+  /**
+   * Test that a sliced heap buffer returns indexes relative to the slice
+   */
+  @Test
+  public void slicedBuffer_returnsIndexInSlice() {
+    // Given
+    ByteBuffer buffer = ByteBuffer.wrap(SAMPLE);
+    buffer.position(1);
+    ByteBuffer slice = buffer.slice();
+
+    // When Then
+    assertThat(ByteSearch.indexOf(slice, 0x7e), is(6));
+    assertThat(ByteSearch.lastIndexOf(slice, new byte[]{0x01, 0x02}), is(8));
+  }
+
+  /**
+   * Test all search methods against a naive loop on random data
+   */
+  @Test
+  public void randomData_sameAsNaiveLoop() {
+    // Given
+    Random random = new Random(42);
+    byte[] array = new byte[1000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = (byte) random.nextInt(8);
+    }
+
+    for (int run = 0; run < 200; run++) {
+      int fromIndex = random.nextInt(array.length);
+      int toIndex = fromIndex + random.nextInt(array.length - fromIndex + 1);
+      int value = random.nextInt(9);
+      byte[] pattern = new byte[1 + random.nextInt(4)];
+      for (int i = 0; i < pattern.length; i++) {
+        pattern[i] = (byte) random.nextInt(4);
+      }
+
+      // When Then
+      assertThat(ByteSearch.indexOf(array, fromIndex, toIndex, value), is(naiveIndexOf(array, fromIndex, toIndex, new byte[]{(byte) value})));
+      assertThat(ByteSearch.lastIndexOf(array, fromIndex, toIndex, value), is(naiveLastIndexOf(array, fromIndex, toIndex, new byte[]{(byte) value})));
+      assertThat(ByteSearch.indexOf(array, fromIndex, toIndex, pattern), is(naiveIndexOf(array, fromIndex, toIndex, pattern)));
+      assertThat(ByteSearch.lastIndexOf(array, fromIndex, toIndex, pattern), is(naiveLastIndexOf(array, fromIndex, toIndex, pattern)));
+
+      for (ByteBuffer buffer : buffers(array)) {
+        buffer.position(fromIndex).limit(toIndex);
+        assertThat(ByteSearch.indexOf(buffer, value), is(naiveIndexOf(array, fromIndex, toIndex, new byte[]{(byte) value})));
+        assertThat(ByteSearch.lastIndexOf(buffer, pattern), is(naiveLastIndexOf(array, fromIndex, toIndex, pattern)));
+      }
+
+      int[] offsets = new int[array.length];
+      int count = ByteSearch.findAll(array, fromIndex, toIndex, pattern, offsets);
+      int expectedCount = 0;
+      for (int i = fromIndex; i < toIndex; i++) {
+        for (byte delimiter : pattern) {
+          if (array[i] == delimiter) {
+            assertThat(offsets[expectedCount++], is(i));
+            break;
+          }
+        }
+      }
+      assertThat(count, is(expectedCount));
+    }
+  }
+
+  /**
+   * Test that invalid ranges are rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidRange_throwsException() {
+    ByteSearch.indexOf(SAMPLE, 5, 4, 0x00);
+  }
+
+  /**
+   * Test that ranges outside of the array are rejected
+   */
+  @Test(expected = ArrayIndexOutOfBoundsException.class)
+  public void rangeOutsideArray_throwsException() {
+    ByteSearch.lastIndexOf(SAMPLE, 0, SAMPLE.length + 1, new byte[]{0x00});
+  }
+
+  @Test
+  public void testPrivateConstructor() throws Exception {
+    Constructor constructor = ByteSearch.class.getDeclaredConstructor();
+    assertTrue("Constructor is not private", Modifier.isPrivate(constructor.getModifiers()));
+
+    constructor.setAccessible(true);
+    constructor.newInstance();
+  }
+
+  private static ByteBuffer[] buffers(byte[] content) {
+    ByteBuffer direct = ByteBuffer.allocateDirect(content.length);
+    direct.put(content).clear();
+    ByteBuffer littleEndian = ByteBuffer.allocateDirect(content.length).order(ByteOrder.LITTLE_ENDIAN);
+    littleEndian.put(content).clear();
+    return new ByteBuffer[]{ByteBuffer.wrap(content), direct, littleEndian, ByteBuffer.wrap(content).asReadOnlyBuffer()};
+  }
+
+  private static int[] copy(int[] array, int length) {
+    int[] copy = new int[length];
+    System.arraycopy(array, 0, copy, 0, length);
+    return copy;
+  }
+
+  private static int naiveIndexOf(byte[] array, int fromIndex, int toIndex, byte[] pattern) {
+    for (int i = fromIndex; i <= toIndex - pattern.length; i++) {
+      if (naiveMatches(array, i, pattern)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int naiveLastIndexOf(byte[] array, int fromIndex, int toIndex, byte[] pattern) {
+    for (int i = toIndex - pattern.length; i >= fromIndex; i--) {
+      if (naiveMatches(array, i, pattern)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean naiveMatches(byte[] array, int index, byte[] pattern) {
+    for (int i = 0; i < pattern.length; i++) {
+      if (array[index + i] != pattern[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,173 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for class {@link HexInputStream}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class HexInputStreamTest {
+
+  /**
+   * Test decoding the format of formatUnsignedByteArray, with the same variants as parseUnsignedByteArray
+   */
+  @Test
+  public void arrayFormat_decoded() throws IOException {
+    // When Then
+    assertThat(decode("{ 0x00, 0x01, 0xff, 0xFF }", 3), is(Ubyte.toSignedByteArray(new int[]{0, 1, 255, 255})));
+    assertThat(decode("{ 0xff, FF }", 1), is(Ubyte.toSignedByteArray(new int[]{255, 255})));
+    assertThat(decode("{ 0x00 0x01 }", 2), is(new byte[]{0, 1}));
+    assertThat(decode("{ 0x00,,0x01  }", 5), is(new byte[]{0, 1}));
+    assertThat(decode("{ 0x00, ,0x01 }", 7), is(new byte[]{0, 1}));
+    assertThat(decode("{ 0x1, 0x2 }", 1), is(new byte[]{1, 2}));
+    assertThat(decode("{ 0x01 }", 4), is(new byte[]{1}));
+    assertThat(decode("{ }", 2), is(new byte[]{}));
+    assertThat(decode("", 2), is(new byte[]{}));
+  }
+
+  /**
+   * Test decoding plain hex text, also across lines
+   */
+  @Test
+  public void plainFormat_decoded() throws IOException {
+    // When Then
+    assertThat(decode("0001fF80", 1), is(Ubyte.toSignedByteArray(new int[]{0, 1, 255, 128})));
+    assertThat(decode("0001\nff80\n", 3), is(Ubyte.toSignedByteArray(new int[]{0, 1, 255, 128})));
+    assertThat(decode("0x0001", 3), is(new byte[]{0, 1}));
+  }
+
+  /**
+   * Test that the output of formatUnsignedByteArray is decoded back to the original bytes
+   */
+  @Test
+  public void formattedArray_roundTrip() throws IOException {
+    // Given
+    Random random = new Random(42);
+    int[] values = new int[5000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = random.nextInt(256);
+    }
+
+    // When Then
+    assertThat(decode(Ubyte.formatUnsignedByteArray(values), 7), is(Ubyte.toSignedByteArray(values)));
+  }
+
+  /**
+   * Test reading single bytes
+   */
+  @Test
+  public void singleByte_read() throws IOException {
+    // Given
+    InputStream in = new HexInputStream(stream("{ 0xff, 0x01 }"), 4);
+
+    // When Then
+    assertThat(in.read(), is(255));
+    assertThat(in.read(), is(1));
+    assertThat(in.read(), is(-1));
+    assertThat(in.read(), is(-1));
+  }
+
+  /**
+   * Test skipping decoded bytes
+   */
+  @Test
+  public void skip_skipsDecodedBytes() throws IOException {
+    // Given
+    InputStream in = new HexInputStream(stream("00010203"));
+
+    // When Then
+    assertThat(in.skip(-1), is(0L));
+    assertThat(in.skip(0), is(0L));
+    assertThat(in.skip(3), is(3L));
+    assertThat(in.read(), is(3));
+    assertThat(in.skip(3), is(0L));
+  }
+
+  /**
+   * Test skipping across refills of a small text buffer and single digit values
+   */
+  @Test
+  public void skip_acrossTextBuffers() throws IOException {
+    // Given
+    InputStream in = new HexInputStream(stream("{ 0x1, 0x02, 0x03, 0x4, 0x05, 0x06 }"), 3);
+
+    // When Then
+    assertThat(in.skip(4), is(4L));
+    assertThat(in.read(), is(5));
+    assertThat(in.skip(10), is(1L));
+    assertThat(in.read(), is(-1));
+  }
+
+  /**
+   * Test that a negative length is rejected as required by {@link InputStream#read(byte[], int, int)}
+   */
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void negativeLength_throwsException() throws IOException {
+    new HexInputStream(stream("00")).read(new byte[4], 0, -1);
+  }
+
+  /**
+   * Test that an odd number of digits is an error
+   */
+  @Test(expected = IOException.class)
+  public void oddDigits_throwsException() throws IOException {
+    decode("00010", 8);
+  }
+
+  /**
+   * Test that a character that is not hex is an error
+   */
+  @Test(expected = IOException.class)
+  public void invalidCharacter_throwsException() throws IOException {
+    decode("{ 0x00, 0xzz }", 8);
+  }
+
+  /**
+   * Test that a buffer size that is not positive is rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidBufferSize_throwsException() {
+    new HexInputStream(stream(""), 0);
+  }
+
+  private static byte[] decode(String text, int bufferSize) throws IOException {
+    try (InputStream in = new HexInputStream(stream(text), bufferSize)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] chunk = new byte[3];
+      int count;
+      while ((count = in.read(chunk, 0, chunk.length)) != -1) {
+        out.write(chunk, 0, count);
+      }
+      return out.toByteArray();
+    }
+  }
+
+  private static InputStream stream(String text) {
+    return new ByteArrayInputStream(text.getBytes(Charset.forName("ISO-8859-1")));
+  }
+
+}
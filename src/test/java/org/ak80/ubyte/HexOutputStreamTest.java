@@ -0,0 +1,137 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for class {@link HexOutputStream}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class HexOutputStreamTest {
+
+  private static final int[] VALUES = {0, 1, 255, 128, 0x7f};
+
+  /**
+   * Test that the array format is the same as created by formatUnsignedByteArray
+   */
+  @Test
+  public void arrayFormat_sameAsFormatUnsignedByteArray() throws IOException {
+    // When Then
+    assertThat(encode(HexOutputStream.Format.ARRAY, VALUES, 8), is(Ubyte.formatUnsignedByteArray(VALUES)));
+    assertThat(encode(HexOutputStream.Format.ARRAY, new int[]{1}, 8), is("{ 0x01 }"));
+    assertThat(encode(HexOutputStream.Format.ARRAY, new int[]{}, 8), is("{ }"));
+  }
+
+  /**
+   * Test writing plain hex text
+   */
+  @Test
+  public void plainFormat_encoded() throws IOException {
+    // When Then
+    assertThat(encode(HexOutputStream.Format.PLAIN, VALUES, 8), is("0001ff807f"));
+    assertThat(encode(HexOutputStream.Format.PLAIN, new int[]{}, 8), is(""));
+  }
+
+  /**
+   * Test writing single bytes
+   */
+  @Test
+  public void singleByte_write() throws IOException {
+    // Given
+    ByteArrayOutputStream text = new ByteArrayOutputStream();
+
+    // When
+    try (OutputStream out = new HexOutputStream(text, HexOutputStream.Format.ARRAY)) {
+      out.write(0xff);
+      out.write(0x101);
+    }
+
+    // Then
+    assertThat(text.toString("ISO-8859-1"), is("{ 0xff, 0x01 }"));
+  }
+
+  /**
+   * Test that text written with either format is read back by HexInputStream
+   */
+  @Test
+  public void largeInput_roundTrip() throws IOException {
+    // Given
+    byte[] bytes = new byte[100000];
+    new Random(42).nextBytes(bytes);
+
+    for (HexOutputStream.Format format : HexOutputStream.Format.values()) {
+      ByteArrayOutputStream text = new ByteArrayOutputStream();
+
+      // When
+      try (OutputStream out = new HexOutputStream(text, format, 100)) {
+        out.write(bytes, 0, 1000);
+        out.write(bytes, 1000, bytes.length - 1000);
+      }
+
+      // Then
+      ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+      try (InputStream in = new HexInputStream(new ByteArrayInputStream(text.toByteArray()), 100)) {
+        byte[] chunk = new byte[4096];
+        int count;
+        while ((count = in.read(chunk)) != -1) {
+          decoded.write(chunk, 0, count);
+        }
+      }
+      assertThat(decoded.toByteArray(), is(bytes));
+    }
+  }
+
+  /**
+   * Test that writing after finish is an error
+   */
+  @Test(expected = IOException.class)
+  public void writeAfterFinish_throwsException() throws IOException {
+    // Given
+    HexOutputStream out = new HexOutputStream(new ByteArrayOutputStream());
+    out.finish();
+
+    // When
+    out.write(1);
+  }
+
+  /**
+   * Test that a too small buffer size is rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidBufferSize_throwsException() {
+    new HexOutputStream(new ByteArrayOutputStream(), HexOutputStream.Format.PLAIN, 7);
+  }
+
+  private static String encode(HexOutputStream.Format format, int[] values, int bufferSize) throws IOException {
+    ByteArrayOutputStream text = new ByteArrayOutputStream();
+    try (OutputStream out = new HexOutputStream(text, format, bufferSize)) {
+      out.write(Ubyte.toSignedByteArray(values));
+    }
+    return new String(text.toByteArray(), Charset.forName("ISO-8859-1"));
+  }
+
+}
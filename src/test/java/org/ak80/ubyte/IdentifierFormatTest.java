@@ -0,0 +1,227 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for class {@link IdentifierFormat}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class IdentifierFormatTest {
+
+  /**
+   * Test formatting IPv4 addresses into strings, builders and char arrays
+   */
+  @Test
+  public void ipv4_format() {
+    // Given
+    char[] chars = new char[20];
+
+    // When Then
+    assertThat(IdentifierFormat.formatIpv4(0xc0a80001L), is("192.168.0.1"));
+    assertThat(IdentifierFormat.formatIpv4(0xffffffffffL), is("255.255.255.255"));
+    assertThat(IdentifierFormat.formatIpv4(0x0a00000aL, new StringBuilder("ip=")).toString(), is("ip=10.0.0.10"));
+    assertThat(IdentifierFormat.formatIpv4(0x7f000001L, chars, 2), is(9));
+    assertThat(new String(chars, 2, 9), is("127.0.0.1"));
+  }
+
+  /**
+   * Test parsing IPv4 addresses, also from a range of a text
+   */
+  @Test
+  public void ipv4_parse() {
+    assertThat(IdentifierFormat.parseIpv4("192.168.0.1"), is(0xc0a80001L));
+    assertThat(IdentifierFormat.parseIpv4("255.255.255.255"), is(0xffffffffL));
+    assertThat(IdentifierFormat.parseIpv4("0.0.0.0"), is(0L));
+    assertThat(IdentifierFormat.parseIpv4("host 10.1.2.3:80", 5, 13), is(0x0a010203L));
+  }
+
+  /**
+   * Test that invalid IPv4 addresses are rejected
+   */
+  @Test
+  public void ipv4_invalid() {
+    for (String text : new String[]{"", "1.2.3", "1.2.3.4.", "1.2.3.256", "1.2.3.01", "1..2.3", "1.2.3.1000",
+        "a.b.c.d", " 1.2.3.4", "1.2.3.-4"}) {
+      try {
+        IdentifierFormat.parseIpv4(text);
+        fail("Accepted " + text);
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+
+  /**
+   * Test round trips of random IPv4 addresses
+   */
+  @Test
+  public void ipv4_roundTrip() {
+    Random random = new Random(42);
+    for (int i = 0; i < 1000; i++) {
+      long address = random.nextInt() & 0xffffffffL;
+      String text = IdentifierFormat.formatIpv4(address);
+      char[] chars = new char[IdentifierFormat.IPV4_MAX_LENGTH];
+      assertThat(new String(chars, 0, IdentifierFormat.formatIpv4(address, chars, 0)), is(text));
+      assertThat(IdentifierFormat.parseIpv4(text), is(address));
+    }
+  }
+
+  /**
+   * Test formatting and parsing MAC addresses
+   */
+  @Test
+  public void mac_formatParse() {
+    // Given
+    byte[] bytes = Ubyte.toSignedByteArray(new int[]{0xff, 0x00, 0x1a, 0x2b, 0x3c, 0x4d, 0x5e});
+    char[] chars = new char[IdentifierFormat.MAC_LENGTH];
+    byte[] parsed = new byte[8];
+
+    // When
+    IdentifierFormat.formatMac(bytes, 1, chars, 0);
+    IdentifierFormat.parseMac("00:1A:2b:3C:4d:5E", parsed, 2);
+
+    // Then
+    assertThat(new String(chars), is("00:1a:2b:3c:4d:5e"));
+    assertThat(IdentifierFormat.formatMac(bytes, 1, new StringBuilder()).toString(), is("00:1a:2b:3c:4d:5e"));
+    assertThat(IdentifierFormat.formatMac(IdentifierFormat.parseMac("ff:ff:ff:ff:ff:ff")), is("ff:ff:ff:ff:ff:ff"));
+    assertThat(parsed, is(Ubyte.toSignedByteArray(new int[]{0, 0, 0x00, 0x1a, 0x2b, 0x3c, 0x4d, 0x5e})));
+  }
+
+  /**
+   * Test that invalid MAC addresses are rejected
+   */
+  @Test
+  public void mac_invalid() {
+    for (String text : new String[]{"", "00:1a:2b:3c:4d", "00:1a:2b:3c:4d:5e:", "00-1a-2b-3c-4d-5e",
+        "00:1a:2b:3c:4d:5g"}) {
+      try {
+        IdentifierFormat.parseMac(text);
+        fail("Accepted " + text);
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+
+  /**
+   * Test UUIDs against {@link UUID}
+   */
+  @Test
+  public void uuid_sameAsJdk() {
+    for (int i = 0; i < 100; i++) {
+      // Given
+      UUID uuid = UUID.randomUUID();
+      byte[] bytes = ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits())
+          .putLong(uuid.getLeastSignificantBits()).array();
+      char[] chars = new char[IdentifierFormat.UUID_LENGTH + 1];
+
+      // When
+      String text = IdentifierFormat.formatUuid(bytes);
+      IdentifierFormat.formatUuid(bytes, 0, chars, 1);
+
+      // Then
+      assertThat(text, is(uuid.toString()));
+      assertThat(new String(chars, 1, IdentifierFormat.UUID_LENGTH), is(text));
+      assertThat(IdentifierFormat.formatUuid(bytes, 0, new StringBuilder()).toString(), is(text));
+      assertThat(IdentifierFormat.parseUuid(text.toUpperCase()), is(bytes));
+    }
+  }
+
+  /**
+   * Test parsing MAC addresses and UUIDs from a range of a text
+   */
+  @Test
+  public void macAndUuid_parseRange() {
+    // Given
+    String line = "host 00:1a:2b:3c:4d:5e id=123e4567-e89b-12d3-a456-426614174000;";
+    byte[] mac = new byte[7];
+    byte[] uuid = new byte[17];
+
+    // When
+    IdentifierFormat.parseMac(line, 5, 22, mac, 1);
+    IdentifierFormat.parseUuid(line, 26, 62, uuid, 1);
+
+    // Then
+    assertThat(IdentifierFormat.formatMac(mac, 1, new StringBuilder()).toString(), is("00:1a:2b:3c:4d:5e"));
+    assertThat(IdentifierFormat.formatUuid(uuid, 1, new StringBuilder()).toString(),
+        is("123e4567-e89b-12d3-a456-426614174000"));
+    assertThat(IdentifierFormat.parseMac(line, 5, 22), is(IdentifierFormat.parseMac("00:1a:2b:3c:4d:5e")));
+    assertThat(IdentifierFormat.parseUuid(line, 26, 62),
+        is(IdentifierFormat.parseUuid("123e4567-e89b-12d3-a456-426614174000")));
+  }
+
+  /**
+   * Test that a range that does not hold exactly one MAC address or UUID is rejected
+   */
+  @Test
+  public void macAndUuid_invalidRange() {
+    String line = "host 00:1a:2b:3c:4d:5e id=123e4567-e89b-12d3-a456-426614174000;";
+    for (int[] range : new int[][]{{4, 21}, {5, 23}, {6, 23}}) {
+      try {
+        IdentifierFormat.parseMac(line, range[0], range[1]);
+        fail("Accepted range " + range[0] + "-" + range[1]);
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+    for (int[] range : new int[][]{{25, 61}, {26, 63}, {27, 63}}) {
+      try {
+        IdentifierFormat.parseUuid(line, range[0], range[1]);
+        fail("Accepted range " + range[0] + "-" + range[1]);
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+
+  /**
+   * Test that invalid UUIDs are rejected
+   */
+  @Test
+  public void uuid_invalid() {
+    for (String text : new String[]{"", "123e4567e89b12d3a456426614174000", "123e4567-e89b-12d3-a456-42661417400",
+        "123e4567-e89b-12d3-a456_426614174000", "123e4567-e89b-12d3-a456-42661417400x"}) {
+      try {
+        IdentifierFormat.parseUuid(text);
+        fail("Accepted " + text);
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void testPrivateConstructor() throws Exception {
+    Constructor constructor = IdentifierFormat.class.getDeclaredConstructor();
+    assertTrue("Constructor is not private", Modifier.isPrivate(constructor.getModifiers()));
+
+    constructor.setAccessible(true);
+    constructor.newInstance();
+  }
+
+}
@@ -0,0 +1,156 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for classes {@link PackBitsOutputStream} and {@link PackBitsInputStream}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class PackBitsStreamTest {
+
+  /**
+   * Test that the stream output is the same as encoding the whole array, no matter how the input is chunked
+   */
+  @Test
+  public void chunkedWrites_sameAsArrayEncoding() throws IOException {
+    Random random = new Random(42);
+    for (int run = 0; run < 50; run++) {
+      // Given
+      byte[] array = PackBitsTest.randomWithRuns(random, random.nextInt(20000));
+      ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+
+      // When
+      try (OutputStream out = new PackBitsOutputStream(encoded)) {
+        int index = 0;
+        while (index < array.length) {
+          int length = Math.min(array.length - index, random.nextInt(300));
+          if (length == 1) {
+            out.write(array[index]);
+          } else {
+            out.write(array, index, length);
+          }
+          index += length;
+        }
+      }
+
+      // Then
+      assertThat(PackBits.decode(encoded.toByteArray()), is(array));
+      assertThat(encoded.toByteArray(), is(PackBits.encode(array)));
+    }
+  }
+
+  /**
+   * Test decoding a stream with reads of different sizes
+   */
+  @Test
+  public void chunkedReads_roundTrip() throws IOException {
+    // Given
+    Random random = new Random(7);
+    byte[] array = PackBitsTest.randomWithRuns(random, 50000);
+    byte[] encoded = PackBits.encode(array);
+    ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+
+    // When
+    try (InputStream in = new PackBitsInputStream(new ByteArrayInputStream(encoded))) {
+      byte[] chunk = new byte[500];
+      int count;
+      while ((count = in.read(chunk, 0, 1 + random.nextInt(chunk.length))) != -1) {
+        decoded.write(chunk, 0, count);
+      }
+      assertThat(in.read(), is(-1));
+    }
+
+    // Then
+    assertThat(decoded.toByteArray(), is(array));
+  }
+
+  /**
+   * Test reading and skipping single bytes
+   */
+  @Test
+  public void singleBytes_readAndSkip() throws IOException {
+    // Given
+    InputStream in = new PackBitsInputStream(new ByteArrayInputStream(new byte[]{-2, 9, 1, (byte) 0xff, 6}));
+
+    // When Then
+    assertThat(in.skip(-1), is(0L));
+    assertThat(in.read(), is(9));
+    assertThat(in.skip(0), is(0L));
+    assertThat(in.skip(2), is(2L));
+    assertThat(in.read(), is(0xff));
+    assertThat(in.read(), is(6));
+    assertThat(in.read(), is(-1));
+  }
+
+  /**
+   * Test that skipping and reading alternately returns the bytes that were not skipped
+   */
+  @Test
+  public void alternateSkipAndRead_roundTrip() throws IOException {
+    // Given
+    Random random = new Random(3);
+    byte[] array = PackBitsTest.randomWithRuns(random, 50000);
+    byte[] chunk = new byte[300];
+
+    // When Then
+    try (InputStream in = new PackBitsInputStream(new ByteArrayInputStream(PackBits.encode(array)))) {
+      int position = 0;
+      while (position < array.length) {
+        long skipped = in.skip(random.nextInt(300));
+        assertTrue(skipped <= array.length - position);
+        position += (int) skipped;
+        int count = in.read(chunk, 0, 1 + random.nextInt(chunk.length));
+        for (int i = 0; i < count; i++) {
+          assertThat(chunk[i], is(array[position + i]));
+        }
+        position += Math.max(count, 0);
+      }
+      assertThat(in.skip(10), is(0L));
+    }
+  }
+
+  /**
+   * Test that a negative length is rejected as required by {@link InputStream#read(byte[], int, int)}
+   */
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void negativeLength_throwsException() throws IOException {
+    new PackBitsInputStream(new ByteArrayInputStream(new byte[]{0, 1})).read(new byte[4], 0, -1);
+  }
+
+  /**
+   * Test that encoded data ending within a packet is an error
+   */
+  @Test(expected = EOFException.class)
+  public void truncatedData_throwsException() throws IOException {
+    InputStream in = new PackBitsInputStream(new ByteArrayInputStream(new byte[]{5, 1, 2}));
+    in.read(new byte[10], 0, 10);
+    in.read(new byte[10], 0, 10);
+  }
+
+}
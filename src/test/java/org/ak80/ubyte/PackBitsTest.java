@@ -0,0 +1,217 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for class {@link PackBits}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class PackBitsTest {
+
+  /**
+   * Test the example from the PackBits specification
+   */
+  @Test
+  public void specificationExample_encodeDecode() {
+    // Given
+    byte[] decoded = Ubyte.toSignedByteArray(new int[]{0xaa, 0xaa, 0xaa, 0x80, 0x00, 0x2a, 0xaa, 0xaa, 0xaa, 0xaa,
+        0x80, 0x00, 0x2a, 0x22, 0xaa, 0xaa, 0xaa, 0xaa, 0xaa, 0xaa, 0xaa, 0xaa, 0xaa, 0xaa});
+    byte[] encoded = Ubyte.toSignedByteArray(new int[]{0xfe, 0xaa, 0x02, 0x80, 0x00, 0x2a, 0xfd, 0xaa, 0x03, 0x80,
+        0x00, 0x2a, 0x22, 0xf7, 0xaa});
+
+    // When Then
+    assertThat(PackBits.encode(decoded), is(encoded));
+    assertThat(PackBits.decode(encoded), is(decoded));
+  }
+
+  /**
+   * Test that long runs are split into packets of at most 128 bytes
+   */
+  @Test
+  public void longRun_encodedInPackets() {
+    // Given
+    byte[] zeros = new byte[300];
+
+    // When Then
+    assertThat(PackBits.encode(zeros), is(new byte[]{-127, 0, -127, 0, -43, 0}));
+    assertThat(PackBits.decode(new byte[]{-127, 0, PackBits.NO_OPERATION, -127, 0, -43, 0}), is(zeros));
+  }
+
+  /**
+   * Test the run length for runs shorter than a repeat packet, runs ending at toIndex and runs ending in a word
+   */
+  @Test
+  public void runLength_shortAndLongRuns() {
+    // Given
+    byte[] array = new byte[40];
+    Arrays.fill(array, 2, 4, (byte) 7);
+    Arrays.fill(array, 4, 30, (byte) 9);
+
+    // When Then
+    assertThat(PackBits.runLength(array, 0, 40), is(2));
+    assertThat(PackBits.runLength(array, 1, 40), is(1));
+    assertThat(PackBits.runLength(array, 2, 40), is(2));
+    assertThat(PackBits.runLength(array, 4, 40), is(26));
+    assertThat(PackBits.runLength(array, 4, 6), is(2));
+    assertThat(PackBits.runLength(array, 4, 15), is(11));
+    assertThat(PackBits.runLength(array, 30, 40), is(10));
+    assertThat(PackBits.runLength(array, 39, 40), is(1));
+  }
+
+  /**
+   * Test that the encoded length of data without runs does not exceed the maximum
+   */
+  @Test
+  public void noRuns_maxEncodedLength() {
+    // Given
+    byte[] array = new byte[1000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = (byte) i;
+    }
+
+    // When
+    byte[] encoded = PackBits.encode(array);
+
+    // Then
+    assertThat(encoded.length, is(PackBits.maxEncodedLength(array.length)));
+    assertThat(PackBits.decode(encoded), is(array));
+    assertThat(PackBits.maxEncodedLength(0), is(0));
+    assertThat(PackBits.maxEncodedLength(128), is(129));
+    assertThat(PackBits.maxEncodedLength(129), is(131));
+  }
+
+  /**
+   * Test round trips of random data with runs, using arrays and heap and direct buffers
+   */
+  @Test
+  public void randomData_roundTrip() {
+    Random random = new Random(42);
+    for (int run = 0; run < 100; run++) {
+      // Given
+      byte[] array = randomWithRuns(random, random.nextInt(2000));
+
+      // When
+      byte[] encoded = PackBits.encode(array);
+
+      // Then
+      assertTrue(encoded.length <= PackBits.maxEncodedLength(array.length));
+      assertThat(PackBits.decodedLength(encoded, 0, encoded.length), is(array.length));
+      assertThat(PackBits.decode(encoded), is(array));
+
+      ByteBuffer direct = ByteBuffer.allocateDirect(PackBits.maxEncodedLength(array.length));
+      ByteBuffer source = ByteBuffer.allocateDirect(array.length);
+      source.put(array).flip();
+      PackBits.encode(source, direct);
+      direct.flip();
+      assertThat(source.hasRemaining(), is(false));
+      ByteBuffer decoded = ByteBuffer.allocate(array.length);
+      PackBits.decode(direct, decoded);
+      assertThat(direct.hasRemaining(), is(false));
+      assertThat(decoded.array(), is(array));
+    }
+  }
+
+  /**
+   * Test decoding chunked input from a buffer, one chunk after the other
+   */
+  @Test
+  public void chunkedInput_decodedIncrementally() {
+    // Given
+    byte[] array = randomWithRuns(new Random(7), 5000);
+    byte[] encoded = PackBits.encode(array);
+    ByteBuffer source = ByteBuffer.allocate(64);
+    ByteBuffer target = ByteBuffer.allocate(array.length);
+
+    // When
+    for (int offset = 0; offset < encoded.length; offset += 37) {
+      source.put(encoded, offset, Math.min(37, encoded.length - offset));
+      source.flip();
+      PackBits.decode(source, target);
+      source.compact();
+    }
+
+    // Then
+    assertThat(source.position(), is(0));
+    assertThat(target.array(), is(array));
+  }
+
+  /**
+   * Test that a packet that does not fit into a target buffer stays in the source
+   */
+  @Test
+  public void smallTarget_decodeStops() {
+    // Given
+    ByteBuffer source = ByteBuffer.wrap(new byte[]{1, 5, 6, -3, 7});
+    ByteBuffer target = ByteBuffer.allocate(3);
+
+    // When
+    PackBits.decode(source, target);
+
+    // Then
+    assertThat(source.position(), is(3));
+    assertThat(target.position(), is(2));
+  }
+
+  /**
+   * Test that encoded data ending within a packet is rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void truncatedData_throwsException() {
+    PackBits.decode(new byte[]{3, 1, 2});
+  }
+
+  /**
+   * Test that a too small target buffer for encoding is rejected
+   */
+  @Test(expected = BufferOverflowException.class)
+  public void smallEncodeTarget_throwsException() {
+    PackBits.encode(ByteBuffer.allocate(128), ByteBuffer.allocate(128));
+  }
+
+  @Test
+  public void testPrivateConstructor() throws Exception {
+    Constructor constructor = PackBits.class.getDeclaredConstructor();
+    assertTrue("Constructor is not private", Modifier.isPrivate(constructor.getModifiers()));
+
+    constructor.setAccessible(true);
+    constructor.newInstance();
+  }
+
+  static byte[] randomWithRuns(Random random, int length) {
+    byte[] array = new byte[length];
+    int index = 0;
+    while (index < length) {
+      int runLength = Math.min(length - index, 1 + random.nextInt(random.nextBoolean() ? 4 : 400));
+      byte value = random.nextBoolean() ? (byte) random.nextInt() : (byte) (random.nextBoolean() ? 0x00 : 0xff);
+      Arrays.fill(array, index, index + runLength, value);
+      index += runLength;
+    }
+    return array;
+  }
+
+}
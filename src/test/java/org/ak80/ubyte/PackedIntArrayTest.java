@@ -0,0 +1,221 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for class {@link PackedIntArray}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class PackedIntArrayTest {
+
+  /**
+   * Test setting and getting single values, including values spanning two longs
+   */
+  @Test
+  public void singleValues_setGet() {
+    // Given
+    PackedIntArray array = new PackedIntArray(30, 5);
+
+    // When
+    array.set(0, 0b10101);
+    array.set(12, 0b11111);
+    array.set(13, 0b00001);
+    array.set(29, 0b110000);
+
+    // Then
+    assertThat(array.get(0), is(0b10101L));
+    assertThat(array.get(12), is(0b11111L));
+    assertThat(array.get(13), is(0b00001L));
+    assertThat(array.get(11), is(0L));
+    assertThat(array.get(14), is(0L));
+    assertThat(array.get(29), is(0b10000L));
+    assertThat(array.size(), is(30));
+    assertThat(array.bitsPerValue(), is(5));
+  }
+
+  /**
+   * Test that values of 64 bits are stored completely
+   */
+  @Test
+  public void fullWidth_setGet() {
+    // Given
+    PackedIntArray array = new PackedIntArray(3, 64);
+
+    // When
+    array.set(1, -1L);
+    array.set(2, 0x8000000000000001L);
+
+    // Then
+    assertThat(array.get(0), is(0L));
+    assertThat(array.get(1), is(-1L));
+    assertThat(array.get(2), is(0x8000000000000001L));
+  }
+
+  /**
+   * Test single and bulk access for every width against a plain long array
+   */
+  @Test
+  public void allWidths_sameAsLongArray() {
+    Random random = new Random(42);
+    for (int bitsPerValue = 1; bitsPerValue <= 64; bitsPerValue++) {
+      // Given
+      int size = 1 + random.nextInt(300);
+      long mask = bitsPerValue == 64 ? -1L : (1L << bitsPerValue) - 1;
+      long[] expected = new long[size];
+      PackedIntArray array = new PackedIntArray(size, bitsPerValue);
+
+      // When
+      for (int i = 0; i < size; i++) {
+        expected[i] = random.nextLong() & mask;
+        if (i % 2 == 0) {
+          array.set(i, expected[i] | ~mask);
+        }
+      }
+      long[] odd = new long[size];
+      for (int i = 1; i < size; i += 2) {
+        odd[i] = expected[i];
+      }
+      for (int i = 1; i < size; i += 2) {
+        array.set(i, odd, i, 1);
+      }
+
+      // Then
+      long[] bulk = new long[size + 2];
+      array.get(0, bulk, 2, size);
+      for (int i = 0; i < size; i++) {
+        assertThat(array.get(i), is(expected[i]));
+        assertThat(bulk[i + 2], is(expected[i]));
+      }
+
+      PackedIntArray copy = PackedIntArray.fromByteArray(array.toByteArray(), size, bitsPerValue);
+      assertThat(array.toByteArray().length, is((size * bitsPerValue + 7) / 8));
+      for (int i = 0; i < size; i++) {
+        assertThat(copy.get(i), is(expected[i]));
+      }
+
+      PackedIntArray bulkCopy = new PackedIntArray(size, bitsPerValue);
+      bulkCopy.set(0, expected, 0, size);
+      assertThat(bulkCopy.toByteArray(), is(array.toByteArray()));
+    }
+  }
+
+  /**
+   * Test that bulk access to a range in the middle keeps the values around it, for every width
+   */
+  @Test
+  public void allWidths_bulkRangeKeepsNeighbours() {
+    Random random = new Random(7);
+    for (int bitsPerValue = 1; bitsPerValue <= 64; bitsPerValue++) {
+      // Given
+      int size = 200;
+      PackedIntArray array = new PackedIntArray(size, bitsPerValue);
+      long[] expected = new long[size];
+      for (int i = 0; i < size; i++) {
+        expected[i] = random.nextLong();
+        array.set(i, expected[i]);
+      }
+      int from = 1 + random.nextInt(60);
+      int to = from + random.nextInt(size - from);
+      long[] values = new long[size];
+      for (int i = from; i < to; i++) {
+        values[i] = random.nextLong();
+        expected[i] = values[i];
+      }
+
+      // When
+      array.set(from, values, from, to - from);
+      long[] bulk = new long[size];
+      array.get(from - 1, bulk, 0, size - from + 1);
+
+      // Then
+      long mask = bitsPerValue == 64 ? -1L : (1L << bitsPerValue) - 1;
+      for (int i = 0; i < size; i++) {
+        assertThat(array.get(i), is(expected[i] & mask));
+      }
+      for (int i = from - 1; i < size; i++) {
+        assertThat(bulk[i - from + 1], is(expected[i] & mask));
+      }
+    }
+  }
+
+  /**
+   * Test bulk access with int arrays
+   */
+  @Test
+  public void intArrays_packUnpack() {
+    // Given
+    int[] values = {0, 1, 4095, 2048, 7, 4094, 100};
+    PackedIntArray twelveBits = new PackedIntArray(values.length, 12);
+    PackedIntArray eightBits = new PackedIntArray(values.length, 8);
+
+    // When
+    twelveBits.set(0, values, 0, values.length);
+    eightBits.set(0, values, 0, values.length);
+
+    // Then
+    int[] unpacked = new int[values.length];
+    twelveBits.get(0, unpacked, 0, values.length);
+    assertThat(unpacked, is(values));
+    eightBits.get(0, unpacked, 0, values.length);
+    assertThat(unpacked, is(new int[]{0, 1, 255, 0, 7, 254, 100}));
+  }
+
+  /**
+   * Test that the memory needed is size times width
+   */
+  @Test
+  public void threeBitValues_packedIntoBytes() {
+    // Given
+    PackedIntArray array = new PackedIntArray(8, 3);
+    for (int i = 0; i < 8; i++) {
+      array.set(i, i);
+    }
+
+    // When Then
+    assertThat(array.toByteArray(), is(Ubyte.toSignedByteArray(new int[]{0b10001000, 0b11000110, 0b11111010})));
+  }
+
+  /**
+   * Test that a width of more than 64 bits is rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidWidth_throwsException() {
+    new PackedIntArray(10, 65);
+  }
+
+  /**
+   * Test that too few bytes are rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void tooFewBytes_throwsException() {
+    PackedIntArray.fromByteArray(new byte[3], 10, 3);
+  }
+
+  /**
+   * Test that an index outside the array is rejected
+   */
+  @Test(expected = ArrayIndexOutOfBoundsException.class)
+  public void invalidIndex_throwsException() {
+    new PackedIntArray(10, 3).get(10);
+  }
+
+}
@@ -0,0 +1,176 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for class {@link RankSelectBitmap}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class RankSelectBitmapTest {
+
+  /**
+   * Test the numbering of positions in bytes
+   */
+  @Test
+  public void byteArray_positions() {
+    // Given
+    RankSelectBitmap bitmap = RankSelectBitmap.of(new byte[]{(byte) Bits.BIT_1.getMask(), 0, (byte) 0x80});
+
+    // When Then
+    assertThat(bitmap.length(), is(24L));
+    assertThat(bitmap.cardinality(), is(2L));
+    assertThat(bitmap.rank0(bitmap.length()), is(22L));
+    assertThat(bitmap.get(1), is(true));
+    assertThat(bitmap.get(23), is(true));
+    assertThat(bitmap.get(22), is(false));
+    assertThat(bitmap.rank1(2), is(1L));
+    assertThat(bitmap.rank0(2), is(1L));
+    assertThat(bitmap.select1(0), is(1L));
+    assertThat(bitmap.select1(1), is(23L));
+  }
+
+  /**
+   * Test rank and select against a bit set, for dense, medium and sparse bitmaps
+   */
+  @Test
+  public void randomBitmaps_sameAsBitSet() {
+    Random random = new Random(42);
+    for (double density : new double[]{0.0005, 0.01, 0.5, 0.99}) {
+      // Given
+      long[] words = new long[random.nextInt(3000) + 1000];
+      for (int i = 0; i < words.length * 64; i++) {
+        if (random.nextDouble() < density) {
+          words[i >>> 6] |= 1L << i;
+        }
+      }
+      BitSet bitSet = BitSet.valueOf(words);
+
+      // When
+      RankSelectBitmap bitmap = RankSelectBitmap.of(words);
+
+      // Then
+      assertThat(bitmap.cardinality(), is((long) bitSet.cardinality()));
+      int rank = 0;
+      for (int position = 0; position < bitmap.length(); position++) {
+        assertThat(bitmap.rank1(position), is((long) rank));
+        assertThat(bitmap.get(position), is(bitSet.get(position)));
+        if (bitSet.get(position)) {
+          assertThat(bitmap.select1(rank), is((long) position));
+          rank++;
+        }
+      }
+      assertThat(bitmap.rank1(bitmap.length()), is((long) rank));
+    }
+  }
+
+  /**
+   * Test a bitmap with clusters of set bits far apart
+   */
+  @Test
+  public void clusteredBits_select() {
+    // Given
+    long[] words = new long[100000];
+    words[5] = -1L;
+    words[50000] = 0x8000000000000001L;
+    words[99999] = -1L;
+
+    // When
+    RankSelectBitmap bitmap = RankSelectBitmap.of(words);
+
+    // Then
+    assertThat(bitmap.select1(63), is(5L * 64 + 63));
+    assertThat(bitmap.select1(64), is(50000L * 64));
+    assertThat(bitmap.select1(65), is(50000L * 64 + 63));
+    assertThat(bitmap.select1(66), is(99999L * 64));
+    assertThat(bitmap.rank1(99999L * 64), is(66L));
+    assertThat(bitmap.rank0(99999L * 64), is(99999L * 64 - 66));
+  }
+
+  /**
+   * Test select in a bitmap with dense and sparse intervals of set bits next to each other
+   */
+  @Test
+  public void denseAndSparseIntervals_select() {
+    // Given
+    Random random = new Random(3);
+    long[] words = new long[40000];
+    for (int i = 0; i < 100; i++) {
+      words[i] = random.nextLong();
+    }
+    for (int i = 100; i < words.length; i += 97) {
+      words[i] = 1L << random.nextInt(64);
+    }
+    BitSet bitSet = BitSet.valueOf(words);
+
+    // When
+    RankSelectBitmap bitmap = RankSelectBitmap.of(words);
+
+    // Then
+    int rank = 0;
+    for (int position = bitSet.nextSetBit(0); position >= 0; position = bitSet.nextSetBit(position + 1)) {
+      assertThat(bitmap.select1(rank++), is((long) position));
+    }
+  }
+
+  /**
+   * Test that the bitmap does not change if the source array changes
+   */
+  @Test
+  public void longArray_copied() {
+    // Given
+    long[] words = {1L};
+    RankSelectBitmap bitmap = RankSelectBitmap.of(words);
+
+    // When
+    words[0] = 3L;
+
+    // Then
+    assertThat(bitmap.cardinality(), is(1L));
+    assertThat(bitmap.toLongArray(), is(new long[]{1L}));
+  }
+
+  /**
+   * Test that a rank without set bit is rejected
+   */
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void selectBeyondCardinality_throwsException() {
+    RankSelectBitmap.of(new long[]{7L}).select1(3);
+  }
+
+  /**
+   * Test that a position beyond the length is rejected
+   */
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void rankBeyondLength_throwsException() {
+    RankSelectBitmap.of(new byte[1]).rank1(9);
+  }
+
+  /**
+   * Test that a position beyond the bytes of the bitmap is rejected, even within the last long
+   */
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void getBeyondLength_throwsException() {
+    RankSelectBitmap.of(new byte[3]).get(24);
+  }
+
+}
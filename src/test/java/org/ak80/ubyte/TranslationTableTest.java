@@ -0,0 +1,218 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for class {@link TranslationTable}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class TranslationTableTest {
+
+  /**
+   * Test the built in tables
+   */
+  @Test
+  public void builtInTables_translate() {
+    // When Then
+    assertThat(TranslationTable.BIT_REVERSAL.translate(0b00000001), is(0b10000000));
+    assertThat(TranslationTable.BIT_REVERSAL.translate(0b11010010), is(0b01001011));
+    assertThat(TranslationTable.NIBBLE_SWAP.translate(0x12), is(0x21));
+    assertThat(TranslationTable.NIBBLE_SWAP.translate(0xf0), is(0x0f));
+    assertThat(TranslationTable.COMPLEMENT.translate(0b10100000), is(0b01011111));
+    assertThat(TranslationTable.IDENTITY.translate(0xab), is(0xab));
+    assertThat(TranslationTable.IDENTITY.translate(-1), is(0xff));
+  }
+
+  /**
+   * Test that applying bit reversal, nibble swap or complement twice gives the identity
+   */
+  @Test
+  public void selfInverseTables_andThen() {
+    // When Then
+    assertThat(TranslationTable.BIT_REVERSAL.andThen(TranslationTable.BIT_REVERSAL).toArray(),
+        is(TranslationTable.IDENTITY.toArray()));
+    assertThat(TranslationTable.NIBBLE_SWAP.andThen(TranslationTable.NIBBLE_SWAP).toArray(),
+        is(TranslationTable.IDENTITY.toArray()));
+    assertThat(TranslationTable.COMPLEMENT.andThen(TranslationTable.COMPLEMENT).toArray(),
+        is(TranslationTable.IDENTITY.toArray()));
+  }
+
+  /**
+   * Test that composed tables are applied in order
+   */
+  @Test
+  public void composedTable_appliedInOrder() {
+    // Given
+    TranslationTable plusOne = TranslationTable.of(value -> value + 1);
+    TranslationTable timesTwo = TranslationTable.of(value -> value * 2);
+
+    // When Then
+    assertThat(plusOne.andThen(timesTwo).translate(3), is(8));
+    assertThat(timesTwo.andThen(plusOne).translate(3), is(7));
+    assertThat(timesTwo.translate(0x80), is(0x00));
+  }
+
+  /**
+   * Test creating a table from an array of unsigned bytes
+   */
+  @Test
+  public void unsignedByteArray_of() {
+    // Given
+    int[] values = new int[256];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 255 - i;
+    }
+
+    // When Then
+    assertThat(TranslationTable.of(values).toArray(), is(TranslationTable.COMPLEMENT.toArray()));
+  }
+
+  /**
+   * Test that an array that is not 256 unsigned bytes is rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidArray_throwsException() {
+    int[] values = new int[256];
+    values[3] = 256;
+    TranslationTable.of(values);
+  }
+
+  /**
+   * Test translating ranges of arrays in place and into another array
+   */
+  @Test
+  public void arrays_translate() {
+    // Given
+    byte[] array = {0x12, 0x34, 0x56, 0x78};
+    byte[] target = new byte[5];
+
+    // When
+    TranslationTable.NIBBLE_SWAP.translate(array, 0, 4, target, 1);
+    TranslationTable.NIBBLE_SWAP.translate(array, 1, 3);
+
+    // Then
+    assertThat(target, is(new byte[]{0x00, 0x21, 0x43, 0x65, (byte) 0x87}));
+    assertThat(array, is(new byte[]{0x12, 0x43, 0x65, 0x78}));
+  }
+
+  /**
+   * Test translating heap and direct buffers in place and into other buffers, against a lookup per byte
+   */
+  @Test
+  public void buffers_sameAsLookupPerByte() {
+    // Given
+    byte[] content = new byte[101];
+    new Random(42).nextBytes(content);
+    byte[] expected = new byte[content.length];
+    for (int i = 0; i < content.length; i++) {
+      expected[i] = (byte) TranslationTable.BIT_REVERSAL.translate(content[i]);
+    }
+
+    for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.wrap(content.clone()), direct(content, ByteOrder.BIG_ENDIAN)}) {
+      // When
+      buffer.position(3).limit(98);
+      TranslationTable.BIT_REVERSAL.translate(buffer);
+
+      // Then
+      assertThat(buffer.position(), is(3));
+      buffer.clear();
+      for (int i = 0; i < content.length; i++) {
+        assertThat(buffer.get(i), is(i >= 3 && i < 98 ? expected[i] : content[i]));
+      }
+    }
+
+    for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+      // When
+      ByteBuffer source = direct(content, ByteOrder.BIG_ENDIAN);
+      ByteBuffer target = direct(new byte[content.length + 2], order);
+      target.position(2);
+      TranslationTable.BIT_REVERSAL.translate(source, target);
+
+      // Then
+      assertThat(source.position(), is(content.length));
+      assertThat(target.position(), is(content.length + 2));
+      for (int i = 0; i < content.length; i++) {
+        assertThat(target.get(i + 2), is(expected[i]));
+      }
+    }
+  }
+
+  /**
+   * Test translating overlapping ranges of the same array, also with heap buffers sharing the array
+   */
+  @Test
+  public void overlappingRanges_translate() {
+    // Given
+    byte[] array = {0x12, 0x34, 0x56, 0x78, 0x00};
+    byte[] shared = {0x12, 0x34, 0x56, 0x78, 0x00, 0x00};
+    ByteBuffer source = ByteBuffer.wrap(shared, 0, 4);
+    ByteBuffer target = ByteBuffer.wrap(shared, 2, 4);
+
+    // When
+    TranslationTable.NIBBLE_SWAP.translate(array, 0, 4, array, 1);
+    TranslationTable.NIBBLE_SWAP.translate(source, target);
+
+    // Then
+    assertThat(array, is(new byte[]{0x12, 0x21, 0x43, 0x65, (byte) 0x87}));
+    assertThat(shared, is(new byte[]{0x12, 0x34, 0x21, 0x43, 0x65, (byte) 0x87}));
+  }
+
+  /**
+   * Test that translating a buffer into itself is rejected and leaves the buffer unchanged
+   */
+  @Test
+  public void sameBuffer_throwsException() {
+    // Given
+    ByteBuffer buffer = ByteBuffer.wrap(new byte[]{0x12, 0x34});
+
+    // When
+    try {
+      TranslationTable.NIBBLE_SWAP.translate(buffer, buffer);
+      fail("Accepted the same buffer as source and target");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+
+    // Then
+    assertThat(buffer.array(), is(new byte[]{0x12, 0x34}));
+    assertThat(buffer.position(), is(0));
+  }
+
+  /**
+   * Test that a too small target buffer is rejected
+   */
+  @Test(expected = BufferOverflowException.class)
+  public void smallTarget_throwsException() {
+    TranslationTable.IDENTITY.translate(ByteBuffer.allocate(4), ByteBuffer.allocate(3));
+  }
+
+  private static ByteBuffer direct(byte[] content, ByteOrder order) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(content.length).order(order);
+    buffer.put(content).clear();
+    return buffer;
+  }
+
+}
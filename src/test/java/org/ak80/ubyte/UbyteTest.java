@@ -6,6 +6,9 @@ import org.junit.Test;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -375,6 +378,75 @@ public class UbyteTest {
   }
 
 
+  /**
+   * Test converting, formatting and masking the remaining bytes of heap and direct buffers
+   */
+  @Test
+  public void byteBuffer_sameAsArray() {
+    // Given
+    String testString = "AaBbCc1234567890$!+-_%&\u00e4\u00ff";
+    byte[] bytes = testString.getBytes(Charset.forName("ISO-8859-1"));
+    int[] unsigned = Ubyte.toUnsignedByteArray(bytes);
+    for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(bytes.length + 4), ByteBuffer.allocateDirect(bytes.length + 4)}) {
+      buffer.position(2);
+      buffer.put(bytes);
+      buffer.position(2).limit(2 + bytes.length);
+      ByteBuffer slice = buffer.slice();
+
+      // When Then
+      assertThat(Ubyte.toUnsignedByteArray(buffer), is(unsigned));
+      assertThat(Ubyte.toUnsignedByteArray(slice), is(unsigned));
+      assertThat(Ubyte.toIso88591String(buffer), is(testString));
+      assertThat(Ubyte.formatUnsignedByteArray(buffer), is(Ubyte.formatUnsignedByteArray(unsigned)));
+      assertThat(buffer.position(), is(2));
+
+      Ubyte.maskInPlace(buffer, 0x0f);
+      for (int i = 0; i < bytes.length; i++) {
+        assertThat(Ubyte.toUnsignedByte(buffer.get(2 + i)), is(Ubyte.getWithMask(unsigned[i], 0x0f)));
+      }
+      assertThat(buffer.get(0), is((byte) 0));
+      assertThat(buffer.limit(), is(2 + bytes.length));
+    }
+    assertThat(Ubyte.formatUnsignedByteArray(ByteBuffer.allocate(0)), is("{ }"));
+  }
+
+  /**
+   * Test that ints in a buffer are checked in the byte order of the buffer
+   */
+  @Test
+  public void byteBuffer_isUnsignedByteArray() {
+    for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+      // Given
+      ByteBuffer buffer = ByteBuffer.allocateDirect(20).order(order);
+      buffer.asIntBuffer().put(new int[]{0, 255, 1, 128, 7});
+
+      // When Then
+      assertThat(Ubyte.isUnsignedByteArray(buffer), is(true));
+      buffer.putInt(16, 256);
+      assertThat(Ubyte.isUnsignedByteArray(buffer), is(false));
+      buffer.putInt(16, 0).putInt(4, -1);
+      assertThat(Ubyte.isUnsignedByteArray(buffer), is(false));
+      buffer.position(8);
+      assertThat(Ubyte.isUnsignedByteArray(buffer), is(true));
+    }
+  }
+
+  /**
+   * Test that a buffer with an incomplete int is rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void byteBuffer_isUnsignedByteArrayIncompleteInt() {
+    Ubyte.isUnsignedByteArray(ByteBuffer.allocate(6));
+  }
+
+  /**
+   * Test that masking a read-only buffer in place is rejected
+   */
+  @Test(expected = ReadOnlyBufferException.class)
+  public void byteBuffer_maskInPlaceReadOnly() {
+    Ubyte.maskInPlace(ByteBuffer.allocate(16).asReadOnlyBuffer(), 0x0f);
+  }
+
   @Test
   public void testPrivateConstructor() throws Exception {
     Constructor constructor = Ubyte.class.getDeclaredConstructor();
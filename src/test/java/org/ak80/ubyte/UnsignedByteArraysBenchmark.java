@@ -0,0 +1,98 @@
+package org.ak80.ubyte;
+
+import java.util.Random;
+
+/**
+ * Simple benchmark comparing {@link UnsignedByteArrays#compareUnsigned(byte[], byte[])} with a naive loop over
+ * {@link Ubyte#toUnsignedByte(int)} values
+ * <p/>
+ * This is not a unit test and is not run by the build. Run the main method with the test classpath, e.g.
+ * <pre>mvn test-compile exec:java -Dexec.mainClass=org.ak80.ubyte.UnsignedByteArraysBenchmark -Dexec.classpathScope=test</pre>
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+public final class UnsignedByteArraysBenchmark {
+
+  private static final int[] KEY_LENGTHS = {4, 8, 16, 32, 64, 256, 1024};
+  private static final int KEY_COUNT = 1024;
+  private static final int ROUNDS = 10;
+
+  private UnsignedByteArraysBenchmark() {
+    // hide
+  }
+
+  public static void main(String[] args) {
+    Random random = new Random(42);
+    for (int keyLength : KEY_LENGTHS) {
+      byte[][] keys = keysWithCommonPrefix(random, keyLength);
+      int iterations = Math.max(1, 20_000_000 / (keyLength * KEY_COUNT));
+      long sink = 0;
+      long naiveNanos = Long.MAX_VALUE;
+      long wordNanos = Long.MAX_VALUE;
+      for (int round = 0; round < ROUNDS; round++) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          sink += compareAllNaive(keys);
+        }
+        naiveNanos = Math.min(naiveNanos, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+          sink += compareAllWords(keys);
+        }
+        wordNanos = Math.min(wordNanos, System.nanoTime() - start);
+      }
+      long comparisons = (long) iterations * (KEY_COUNT - 1);
+      System.out.println(String.format("key length %5d: naive %8.1f ns/compare, word %8.1f ns/compare (%s)",
+          keyLength, (double) naiveNanos / comparisons, (double) wordNanos / comparisons, sink));
+    }
+  }
+
+  private static byte[][] keysWithCommonPrefix(Random random, int keyLength) {
+    byte[][] keys = new byte[KEY_COUNT][keyLength];
+    for (byte[] key : keys) {
+      key[keyLength - 1] = (byte) random.nextInt();
+    }
+    return keys;
+  }
+
+  private static long compareAllNaive(byte[][] keys) {
+    long sum = 0;
+    for (int i = 1; i < keys.length; i++) {
+      sum += naiveCompare(keys[i - 1], keys[i]);
+    }
+    return sum;
+  }
+
+  private static long compareAllWords(byte[][] keys) {
+    long sum = 0;
+    for (int i = 1; i < keys.length; i++) {
+      sum += UnsignedByteArrays.compareUnsigned(keys[i - 1], keys[i]);
+    }
+    return sum;
+  }
+
+  private static int naiveCompare(byte[] left, byte[] right) {
+    int length = Math.min(left.length, right.length);
+    for (int i = 0; i < length; i++) {
+      int difference = Ubyte.toUnsignedByte(left[i]) - Ubyte.toUnsignedByte(right[i]);
+      if (difference != 0) {
+        return difference;
+      }
+    }
+    return left.length - right.length;
+  }
+
+}
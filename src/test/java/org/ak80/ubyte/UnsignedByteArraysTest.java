@@ -0,0 +1,144 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for class {@link UnsignedByteArrays}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class UnsignedByteArraysTest {
+
+  /**
+   * Test that bytes are compared unsigned, so 0xff is greater than 0x01
+   */
+  @Test
+  public void compare_unsignedOrder() {
+    // When Then
+    assertThat(Integer.signum(UnsignedByteArrays.compareUnsigned(new byte[]{(byte) 0xff}, new byte[]{0x01})), is(1));
+    assertThat(Integer.signum(UnsignedByteArrays.compareUnsigned(new byte[]{0x01}, new byte[]{(byte) 0x80})), is(-1));
+    assertThat(UnsignedByteArrays.compareUnsigned(new byte[]{0x01, 0x02}, new byte[]{0x01, 0x02}), is(0));
+    assertThat(UnsignedByteArrays.compareUnsigned(new byte[]{}, new byte[]{}), is(0));
+
+    byte[] longLeft = Ubyte.toSignedByteArray(new int[]{1, 2, 3, 4, 5, 6, 7, 0x80, 9});
+    byte[] longRight = Ubyte.toSignedByteArray(new int[]{1, 2, 3, 4, 5, 6, 7, 0x7f, 9});
+    assertThat(Integer.signum(UnsignedByteArrays.compareUnsigned(longLeft, longRight)), is(1));
+    assertThat(Integer.signum(UnsignedByteArrays.compareUnsigned(longRight, longLeft)), is(-1));
+  }
+
+  /**
+   * Test that a prefix is ordered before the longer array
+   */
+  @Test
+  public void compare_prefixIsLess() {
+    // When Then
+    assertThat(Integer.signum(UnsignedByteArrays.compareUnsigned(new byte[]{1, 2}, new byte[]{1, 2, 0})), is(-1));
+    assertThat(Integer.signum(UnsignedByteArrays.compareUnsigned(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9},
+        new byte[]{1, 2, 3, 4, 5, 6, 7, 8})), is(1));
+  }
+
+  /**
+   * Test comparing ranges of arrays
+   */
+  @Test
+  public void compare_ranges() {
+    // Given
+    byte[] left = {9, 9, 1, 2, 3};
+    byte[] right = {1, 2, 3, 9};
+
+    // When Then
+    assertThat(UnsignedByteArrays.compareUnsigned(left, 2, 5, right, 0, 3), is(0));
+    assertThat(UnsignedByteArrays.equals(left, 2, 5, right, 0, 3), is(true));
+    assertThat(UnsignedByteArrays.equals(left, 2, 5, right, 0, 4), is(false));
+    assertThat(UnsignedByteArrays.equals(left, 1, 4, right, 0, 3), is(false));
+  }
+
+  /**
+   * Test finding the first mismatch
+   */
+  @Test
+  public void mismatch_returnsFirstDifference() {
+    // When Then
+    assertThat(UnsignedByteArrays.mismatch(new byte[]{1, 2, 3}, new byte[]{1, 2, 3}), is(-1));
+    assertThat(UnsignedByteArrays.mismatch(new byte[]{1, 2, 3}, new byte[]{1, 5, 3}), is(1));
+    assertThat(UnsignedByteArrays.mismatch(new byte[]{1, 2}, new byte[]{1, 2, 3}), is(2));
+    assertThat(UnsignedByteArrays.mismatch(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10},
+        new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 11}), is(9));
+    assertThat(UnsignedByteArrays.mismatch(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10},
+        new byte[]{1, 2, 3, 4, 0, 6, 7, 8, 9, 10}), is(4));
+    assertThat(UnsignedByteArrays.mismatch(new byte[]{0, 0, 5, 6}, 2, 4, new byte[]{5, 7}, 0, 2), is(1));
+  }
+
+  /**
+   * Test that sorting with the comparator gives the same order as comparing the unsigned byte values
+   */
+  @Test
+  public void comparator_sameAsNaiveLoop() {
+    // Given
+    Random random = new Random(42);
+    byte[][] keys = new byte[500][];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = new byte[random.nextInt(20)];
+      for (int j = 0; j < keys[i].length; j++) {
+        keys[i][j] = (byte) (random.nextInt(3) * 0x7f);
+      }
+    }
+
+    // When
+    byte[][] sorted = keys.clone();
+    Arrays.sort(sorted, UnsignedByteArrays.comparator());
+
+    // Then
+    for (int i = 1; i < sorted.length; i++) {
+      assertTrue(naiveCompare(sorted[i - 1], sorted[i]) <= 0);
+    }
+    for (int i = 1; i < keys.length; i++) {
+      assertThat(Integer.signum(UnsignedByteArrays.compareUnsigned(keys[i - 1], keys[i])),
+          is(Integer.signum(naiveCompare(keys[i - 1], keys[i]))));
+      assertThat(UnsignedByteArrays.equals(keys[i - 1], 0, keys[i - 1].length, keys[i], 0, keys[i].length),
+          is(Arrays.equals(keys[i - 1], keys[i])));
+    }
+  }
+
+  @Test
+  public void testPrivateConstructor() throws Exception {
+    Constructor constructor = UnsignedByteArrays.class.getDeclaredConstructor();
+    assertTrue("Constructor is not private", Modifier.isPrivate(constructor.getModifiers()));
+
+    constructor.setAccessible(true);
+    constructor.newInstance();
+  }
+
+  private static int naiveCompare(byte[] left, byte[] right) {
+    for (int i = 0; i < Math.min(left.length, right.length); i++) {
+      int difference = Ubyte.toUnsignedByte(left[i]) - Ubyte.toUnsignedByte(right[i]);
+      if (difference != 0) {
+        return difference;
+      }
+    }
+    return left.length - right.length;
+  }
+
+}
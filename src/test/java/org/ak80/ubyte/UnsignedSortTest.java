@@ -0,0 +1,155 @@
+package org.ak80.ubyte;
+
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for class {@link UnsignedSort}
+ * <p/>
+ * Copyright [2015] [Alexander Koch]
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class UnsignedSortTest {
+
+  /**
+   * Test that bytes are sorted in unsigned order
+   */
+  @Test
+  public void byteArray_sortedUnsigned() {
+    // Given
+    byte[] array = Ubyte.toSignedByteArray(new int[]{0xff, 0x00, 0x80, 0x7f, 0x01, 0x80});
+
+    // When
+    UnsignedSort.sort(array);
+
+    // Then
+    assertThat(Ubyte.toUnsignedByteArray(array), is(new int[]{0x00, 0x01, 0x7f, 0x80, 0x80, 0xff}));
+  }
+
+  /**
+   * Test sorting ranges of random arrays, sequentially and in parallel
+   */
+  @Test
+  public void randomRanges_sameAsNaiveSort() {
+    Random random = new Random(42);
+    for (int length : new int[]{0, 1, 100, 200_000}) {
+      // Given
+      byte[] array = new byte[length + 10];
+      random.nextBytes(array);
+      byte[] parallel = array.clone();
+
+      // When
+      UnsignedSort.sort(array, 5, 5 + length);
+      UnsignedSort.parallelSort(parallel, 5, 5 + length);
+
+      // Then
+      assertThat(array, is(parallel));
+      for (int i = 6; i < 5 + length; i++) {
+        assertTrue(Ubyte.toUnsignedByte(array[i - 1]) <= Ubyte.toUnsignedByte(array[i]));
+      }
+    }
+  }
+
+  /**
+   * Test that key indexes are sorted stable in unsigned order, sequentially and in parallel
+   */
+  @Test
+  public void keys_sameAsStableSort() {
+    Random random = new Random(7);
+    for (int count : new int[]{10, 1000, 100_000}) {
+      // Given
+      byte[][] keys = new byte[count][3];
+      for (byte[] key : keys) {
+        key[0] = (byte) (random.nextInt(4) * 0x50);
+        key[2] = (byte) random.nextInt();
+      }
+      Integer[] expected = new Integer[count];
+      Arrays.setAll(expected, i -> i);
+      Comparator<byte[]> comparator = UnsignedByteArrays.comparator();
+      Arrays.sort(expected, (left, right) -> comparator.compare(keys[left], keys[right]));
+      int[] parallel = new int[count];
+      Arrays.setAll(parallel, i -> i);
+
+      // When
+      int[] indexes = UnsignedSort.sortedIndexes(keys);
+      UnsignedSort.parallelSortIndexes(keys, parallel);
+
+      // Then
+      assertThat(Arrays.stream(indexes).boxed().toArray(Integer[]::new), is(expected));
+      assertThat(parallel, is(indexes));
+    }
+  }
+
+  /**
+   * Test sorting offsets of keys in a buffer
+   */
+  @Test
+  public void bufferKeys_offsetsSorted() {
+    // Given
+    Random random = new Random(3);
+    int keyLength = 4;
+    byte[] buffer = new byte[100_000 * keyLength + 1];
+    random.nextBytes(buffer);
+    int[] offsets = new int[100_000];
+    Arrays.setAll(offsets, i -> 1 + i * keyLength);
+    int[] parallel = offsets.clone();
+
+    // When
+    UnsignedSort.sortOffsets(buffer, offsets, keyLength);
+    UnsignedSort.parallelSortOffsets(buffer, parallel, keyLength);
+
+    // Then
+    assertThat(parallel, is(offsets));
+    for (int i = 1; i < offsets.length; i++) {
+      assertTrue(UnsignedByteArrays.compareUnsigned(buffer, offsets[i - 1], offsets[i - 1] + keyLength,
+          buffer, offsets[i], offsets[i] + keyLength) <= 0);
+    }
+  }
+
+  /**
+   * Test that keys of different lengths are rejected
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void differentKeyLengths_throwsException() {
+    UnsignedSort.sortedIndexes(new byte[][]{{1, 2}, {1}});
+  }
+
+  /**
+   * Test that a key beyond the end of the buffer is rejected
+   */
+  @Test(expected = ArrayIndexOutOfBoundsException.class)
+  public void offsetBeyondBuffer_throwsException() {
+    UnsignedSort.sortOffsets(new byte[8], new int[]{0, 6}, 4);
+  }
+
+  @Test
+  public void testPrivateConstructor() throws Exception {
+    Constructor constructor = UnsignedSort.class.getDeclaredConstructor();
+    assertTrue("Constructor is not private", Modifier.isPrivate(constructor.getModifiers()));
+
+    constructor.setAccessible(true);
+    constructor.newInstance();
+  }
+
+}